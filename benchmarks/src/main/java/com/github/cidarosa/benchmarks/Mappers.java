@@ -0,0 +1,19 @@
+package com.github.cidarosa.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+final class Mappers {
+
+    private Mappers() {
+    }
+
+    // mesma configuração de datas que o ObjectMapper do Spring Boot
+    static ObjectMapper objectMapper() {
+        return JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+}
@@ -0,0 +1,85 @@
+package com.github.cidarosa.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.cidarosa.ms_pagamento.dto.PagamentoDTO;
+import com.github.cidarosa.ms_pagamento.entity.Pagamento;
+import com.github.cidarosa.ms_pagamento.entity.Status;
+import com.github.cidarosa.ms_pagamento.service.PagamentoService;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class PagamentoMappingBenchmark {
+
+    // copytDtoToEntity é privado no service
+    private static final MethodHandle COPY_DTO_TO_ENTITY;
+
+    static {
+        try {
+            COPY_DTO_TO_ENTITY = MethodHandles.privateLookupIn(PagamentoService.class, MethodHandles.lookup())
+                    .findVirtual(PagamentoService.class, "copytDtoToEntity",
+                            MethodType.methodType(void.class, PagamentoDTO.class, Pagamento.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private PagamentoService service;
+    private ObjectMapper objectMapper;
+    private Pagamento pagamento;
+    private PagamentoDTO dto;
+    private byte[] json;
+
+    @Setup
+    public void setup() throws Exception {
+
+        service = new PagamentoService();
+        objectMapper = Mappers.objectMapper();
+
+        pagamento = new Pagamento();
+        pagamento.setId(1L);
+        pagamento.setValor(BigDecimal.valueOf(32.25));
+        pagamento.setNome("Jon Snow");
+        pagamento.setNumeroDoCartao("2365412478964521");
+        pagamento.setValidade("07/32");
+        pagamento.setCodigoDeSeguranca("585");
+        pagamento.setStatus(Status.CRIADO);
+        pagamento.setPedidoId(1L);
+        pagamento.setFormaDePagamentoId(2L);
+
+        dto = new PagamentoDTO(pagamento);
+        json = objectMapper.writeValueAsBytes(dto);
+    }
+
+    @Benchmark
+    public PagamentoDTO entityToDto() {
+        return new PagamentoDTO(pagamento);
+    }
+
+    @Benchmark
+    public Pagamento dtoToEntity() throws Throwable {
+        Pagamento entity = new Pagamento();
+        COPY_DTO_TO_ENTITY.invokeExact(service, dto, entity);
+        return entity;
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(dto);
+    }
+
+    @Benchmark
+    public PagamentoDTO deserialize() throws Exception {
+        return objectMapper.readValue(json, PagamentoDTO.class);
+    }
+}
@@ -0,0 +1,119 @@
+package com.github.cidarosa.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.cidarosa.ms_pedido.dto.ItemDoPedidoDTO;
+import com.github.cidarosa.ms_pedido.dto.PedidoDTO;
+import com.github.cidarosa.ms_pedido.entities.ItemDoPedido;
+import com.github.cidarosa.ms_pedido.entities.Pedido;
+import com.github.cidarosa.ms_pedido.entities.Status;
+import com.github.cidarosa.ms_pedido.service.PedidoService;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class PedidoMappingBenchmark {
+
+    // copyDtoToEntity é privado no service
+    private static final MethodHandle COPY_DTO_TO_ENTITY;
+
+    static {
+        try {
+            COPY_DTO_TO_ENTITY = MethodHandles.privateLookupIn(PedidoService.class, MethodHandles.lookup())
+                    .findVirtual(PedidoService.class, "copyDtoToEntity",
+                            MethodType.methodType(void.class, PedidoDTO.class, Pedido.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @Param({"1", "10", "100", "1000"})
+    private int itens;
+
+    private PedidoService service;
+    private ObjectMapper objectMapper;
+    private Pedido pedido;
+    private ItemDoPedido item;
+    private PedidoDTO dto;
+    private byte[] json;
+
+    @Setup
+    public void setup() throws Exception {
+
+        service = new PedidoService();
+        objectMapper = Mappers.objectMapper();
+
+        pedido = new Pedido();
+        pedido.setId(1L);
+        pedido.setNome("Jon Snow");
+        pedido.setCpf("12345678935");
+        pedido.setData(LocalDate.of(2025, 4, 25));
+        pedido.setStatus(Status.REALIZADO);
+        for (int i = 0; i < itens; i++) {
+            ItemDoPedido itemDoPedido = new ItemDoPedido();
+            itemDoPedido.setId((long) i + 1);
+            itemDoPedido.setQuantidade(i % 5 + 1);
+            itemDoPedido.setDescricao("Item do pedido " + i);
+            itemDoPedido.setValorUnitario(BigDecimal.valueOf(1000 + i, 2));
+            itemDoPedido.setPedido(pedido);
+            pedido.getItens().add(itemDoPedido);
+        }
+        item = pedido.getItens().get(0);
+        dto = new PedidoDTO(pedido);
+        json = objectMapper.writeValueAsBytes(dto);
+    }
+
+    @Benchmark
+    public PedidoDTO entityToDto() {
+        return new PedidoDTO(pedido);
+    }
+
+    @Benchmark
+    public ItemDoPedidoDTO itemEntityToDto() {
+        return new ItemDoPedidoDTO(item);
+    }
+
+    @Benchmark
+    public Pedido dtoToEntity() throws Throwable {
+        Pedido entity = new Pedido();
+        COPY_DTO_TO_ENTITY.invokeExact(service, dto, entity);
+        return entity;
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(dto);
+    }
+
+    @Benchmark
+    public PedidoDTO deserialize() throws Exception {
+        return objectMapper.readValue(json, PedidoDTO.class);
+    }
+
+    // caminho completo do GET /pedidos/{id}: entidade -> DTO -> JSON
+    @Benchmark
+    public byte[] entityToJson() throws Exception {
+        return objectMapper.writeValueAsBytes(new PedidoDTO(pedido));
+    }
+
+    @Benchmark
+    public List<ItemDoPedidoDTO> itensEntityToDto() {
+        List<ItemDoPedidoDTO> result = new ArrayList<>(pedido.getItens().size());
+        for (ItemDoPedido itemDoPedido : pedido.getItens()) {
+            result.add(new ItemDoPedidoDTO(itemDoPedido));
+        }
+        return result;
+    }
+}
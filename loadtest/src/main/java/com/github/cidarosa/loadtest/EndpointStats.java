@@ -0,0 +1,52 @@
+package com.github.cidarosa.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// latência (HdrHistogram, em microssegundos) e erros de um endpoint
+public class EndpointStats {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+
+    public void record(long latencyNanos, boolean success) {
+        histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    public void reset() {
+        histogram.reset();
+        errors.reset();
+    }
+
+    public Map<String, Object> summary(double elapsedSeconds) {
+
+        long count = histogram.getTotalCount();
+        long errorCount = errors.sum();
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", count);
+        summary.put("errors", errorCount);
+        summary.put("errorRate", count == 0 ? 0.0 : (double) errorCount / count);
+        summary.put("throughputPerSecond", elapsedSeconds == 0 ? 0.0 : count / elapsedSeconds);
+        summary.put("p50Ms", millis(histogram.getValueAtPercentile(50)));
+        summary.put("p95Ms", millis(histogram.getValueAtPercentile(95)));
+        summary.put("p99Ms", millis(histogram.getValueAtPercentile(99)));
+        summary.put("p999Ms", millis(histogram.getValueAtPercentile(99.9)));
+        summary.put("maxMs", millis(histogram.getMaxValue()));
+        return summary;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
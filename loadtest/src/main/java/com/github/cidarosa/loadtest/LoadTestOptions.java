@@ -0,0 +1,138 @@
+package com.github.cidarosa.loadtest;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// rate=100 duration=60 warmup=10 mix=checkout:60,browse:30,update:10 out=target/loadtest-summary.json
+// benchmark=threads (ThreadModelBenchmark), benchmark=reactive (ReactiveReadBenchmark) ou
+// benchmark=l2cache (SecondLevelCacheBenchmark) trocam a carga aberta
+// por modelo fechado em concurrency=50,200,800 - nesse caso rate e max-concurrency não se aplicam;
+// benchmark=projection (ProjectionBenchmark) mede alocação por chamada em uma thread (só duration e warmup)
+// (o prefixo "--" é opcional)
+public class LoadTestOptions {
+
+    public static final String LOAD = "load";
+    public static final String THREADS = "threads";
+    public static final String REACTIVE = "reactive";
+    public static final String L2CACHE = "l2cache";
+    public static final String PROJECTION = "projection";
+    public static final List<String> BENCHMARKS = List.of(LOAD, THREADS, REACTIVE, L2CACHE, PROJECTION);
+
+    // chegadas de cenários por segundo (modelo aberto)
+    private double rate = 50;
+    private int durationSeconds = 30;
+    private int warmupSeconds = 5;
+    private int maxConcurrency = 512;
+    private Map<String, Integer> mix = new LinkedHashMap<>(Map.of(
+            Scenarios.CHECKOUT, 60,
+            Scenarios.BROWSE, 30,
+            Scenarios.UPDATE, 10));
+    private Path out = Path.of("target", "loadtest-summary.json");
+    private String benchmark = LOAD;
+    // modelo fechado: clientes simultâneos, modos de thread dos serviços e alvo de p99 da leitura reativa
+    private List<Integer> concurrency = List.of(50, 200, 800);
+    private List<String> threads = ThreadModelBenchmark.THREADS;
+    private double p99TargetMs = 50;
+
+    public static LoadTestOptions parse(String[] args) {
+
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Argumento inválido: " + arg);
+            }
+            switch (pair[0]) {
+                case "rate" -> options.rate = Double.parseDouble(pair[1]);
+                case "duration" -> options.durationSeconds = Integer.parseInt(pair[1]);
+                case "warmup" -> options.warmupSeconds = Integer.parseInt(pair[1]);
+                case "max-concurrency" -> options.maxConcurrency = Integer.parseInt(pair[1]);
+                case "mix" -> options.mix = parseMix(pair[1]);
+                case "out" -> options.out = Path.of(pair[1]);
+                case "benchmark" -> options.benchmark = pair[1];
+                case "p99-target" -> options.p99TargetMs = Double.parseDouble(pair[1]);
+                case "concurrency" -> options.concurrency = Arrays.stream(pair[1].split(","))
+                        .map(Integer::parseInt).toList();
+                case "threads" -> options.threads = parseThreads(pair[1]);
+                default -> throw new IllegalArgumentException("Opção desconhecida: " + pair[0]);
+            }
+        }
+        if (options.rate <= 0) {
+            throw new IllegalArgumentException("rate deve ser positivo");
+        }
+        if (!BENCHMARKS.contains(options.benchmark)) {
+            throw new IllegalArgumentException("Benchmark desconhecido: " + options.benchmark);
+        }
+        if (options.concurrency.stream().anyMatch(value -> value <= 0)) {
+            throw new IllegalArgumentException("concurrency deve ser positivo");
+        }
+        return options;
+    }
+
+    private static Map<String, Integer> parseMix(String value) {
+
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] pair = entry.split(":");
+            if (!Scenarios.NAMES.contains(pair[0])) {
+                throw new IllegalArgumentException("Cenário desconhecido: " + pair[0]);
+            }
+            mix.put(pair[0], Integer.parseInt(pair[1]));
+        }
+        return mix;
+    }
+
+    private static List<String> parseThreads(String value) {
+
+        List<String> threads = Arrays.asList(value.split(","));
+        for (String mode : threads) {
+            if (!ThreadModelBenchmark.THREADS.contains(mode)) {
+                throw new IllegalArgumentException("Modo de thread desconhecido: " + mode);
+            }
+        }
+        return threads;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public int getWarmupSeconds() {
+        return warmupSeconds;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public Map<String, Integer> getMix() {
+        return mix;
+    }
+
+    public Path getOut() {
+        return out;
+    }
+
+    public String getBenchmark() {
+        return benchmark;
+    }
+
+    public double getP99TargetMs() {
+        return p99TargetMs;
+    }
+
+    public List<Integer> getConcurrency() {
+        return concurrency;
+    }
+
+    public List<String> getThreads() {
+        return threads;
+    }
+}
@@ -0,0 +1,181 @@
+package com.github.cidarosa.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.cidarosa.ms_pagamento.MsPagamentoApplication;
+import com.github.cidarosa.ms_pedido.MsPedidoApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Sobe ms-pedido e ms-pagamento em portas aleatórias (H2 em memória) e gera carga
+// em modelo aberto: os cenários chegam a uma taxa fixa, independente das respostas.
+// A latência do cenário é medida a partir do instante previsto de chegada,
+// então atrasos do próprio gerador não escondem filas (coordinated omission).
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        switch (options.getBenchmark()) {
+            case LoadTestOptions.THREADS -> ThreadModelBenchmark.run(options);
+            case LoadTestOptions.REACTIVE -> ReactiveReadBenchmark.run(options);
+            case LoadTestOptions.L2CACHE -> SecondLevelCacheBenchmark.run(options);
+            case LoadTestOptions.PROJECTION -> ProjectionBenchmark.run(options);
+            default -> openModel(options);
+        }
+    }
+
+    private static void openModel(LoadTestOptions options) throws Exception {
+
+        try (ConfigurableApplicationContext pedido = start(MsPedidoApplication.class, "loadtest-pedido");
+             ConfigurableApplicationContext pagamento = start(MsPagamentoApplication.class, "loadtest-pagamento")) {
+
+            Scenarios scenarios = new Scenarios(baseUrl(pedido), baseUrl(pagamento));
+            Map<String, EndpointStats> scenarioStats = new TreeMap<>();
+            for (String name : options.getMix().keySet()) {
+                scenarioStats.put("scenario:" + name, new EndpointStats());
+            }
+
+            LongAdder dropped = new LongAdder();
+            if (options.getWarmupSeconds() > 0) {
+                drive(options, scenarios, scenarioStats, dropped, options.getWarmupSeconds());
+                scenarios.getStats().values().forEach(EndpointStats::reset);
+                scenarioStats.values().forEach(EndpointStats::reset);
+                dropped.reset();
+            }
+
+            long start = System.nanoTime();
+            drive(options, scenarios, scenarioStats, dropped, options.getDurationSeconds());
+            double elapsed = (System.nanoTime() - start) / 1e9;
+
+            report(options, scenarios.getStats(), scenarioStats, dropped.sum(), elapsed);
+        }
+    }
+
+    // properties como argumentos de linha de comando - sobrepõem o arquivo de configuração
+    static ConfigurableApplicationContext start(Class<?> application, String configName, String... properties) {
+        String[] args = Arrays.stream(properties).map(property -> "--" + property).toArray(String[]::new);
+        return new SpringApplicationBuilder(application)
+                .properties("spring.config.name=" + configName)
+                .run(args);
+    }
+
+    static String baseUrl(ConfigurableApplicationContext context) {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        return "http://localhost:" + port;
+    }
+
+    private static void drive(LoadTestOptions options, Scenarios scenarios,
+                              Map<String, EndpointStats> scenarioStats,
+                              LongAdder dropped, int seconds) throws InterruptedException {
+
+        List<String> weighted = weighted(options.getMix());
+        Semaphore inFlight = new Semaphore(options.getMaxConcurrency());
+        ExecutorService workers = Executors.newCachedThreadPool();
+        long intervalNanos = (long) (1e9 / options.getRate());
+        long arrivals = (long) (options.getRate() * seconds);
+        long start = System.nanoTime();
+
+        for (long i = 0; i < arrivals; i++) {
+            long intended = start + i * intervalNanos;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            String scenario = weighted.get(ThreadLocalRandom.current().nextInt(weighted.size()));
+            // sem bloquear o gerador: acima do limite a chegada é descartada e contada
+            if (!inFlight.tryAcquire()) {
+                dropped.increment();
+                continue;
+            }
+            workers.execute(() -> {
+                boolean success = true;
+                try {
+                    scenarios.run(scenario);
+                } catch (Exception e) {
+                    success = false;
+                } finally {
+                    scenarioStats.get("scenario:" + scenario).record(System.nanoTime() - intended, success);
+                    inFlight.release();
+                }
+            });
+        }
+
+        workers.shutdown();
+        workers.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    // cada cenário repetido pelo seu peso - sorteio uniforme respeita o mix
+    static List<String> weighted(Map<String, Integer> mix) {
+
+        List<String> weighted = new ArrayList<>();
+        mix.forEach((name, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(name);
+            }
+        });
+        return weighted;
+    }
+
+    private static void report(LoadTestOptions options, Map<String, EndpointStats> endpointStats,
+                               Map<String, EndpointStats> scenarioStats,
+                               long dropped, double elapsed) throws Exception {
+
+        Map<String, Object> endpoints = new TreeMap<>();
+        endpointStats.forEach((name, stats) -> endpoints.put(name, stats.summary(elapsed)));
+        Map<String, Object> scenarios = new TreeMap<>();
+        scenarioStats.forEach((name, stats) -> scenarios.put(name, stats.summary(elapsed)));
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("rate", options.getRate());
+        config.put("durationSeconds", options.getDurationSeconds());
+        config.put("warmupSeconds", options.getWarmupSeconds());
+        config.put("maxConcurrency", options.getMaxConcurrency());
+        config.put("mix", options.getMix());
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("config", config);
+        summary.put("elapsedSeconds", elapsed);
+        summary.put("droppedArrivals", dropped);
+        summary.put("scenarios", scenarios);
+        summary.put("endpoints", endpoints);
+
+        System.out.printf("%n%-24s %8s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "err%", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "req/s");
+        printRows(scenarios);
+        printRows(endpoints);
+        System.out.printf("chegadas descartadas: %d%n", dropped);
+
+        Files.createDirectories(options.getOut().toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(options.getOut().toFile(), summary);
+        System.out.println("Resumo gravado em " + options.getOut());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void printRows(Map<String, Object> rows) {
+        rows.forEach((name, value) -> {
+            Map<String, Object> row = (Map<String, Object>) value;
+            System.out.printf("%-24s %8d %6.2f%% %9.2f %9.2f %9.2f %9.2f %9.1f%n", name,
+                    (Long) row.get("count"), (Double) row.get("errorRate") * 100,
+                    row.get("p50Ms"), row.get("p95Ms"), row.get("p99Ms"), row.get("p999Ms"),
+                    row.get("throughputPerSecond"));
+        });
+    }
+}
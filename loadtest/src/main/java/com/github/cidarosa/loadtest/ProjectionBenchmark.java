@@ -0,0 +1,199 @@
+package com.github.cidarosa.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.cidarosa.ms_pagamento.MsPagamentoApplication;
+import com.github.cidarosa.ms_pagamento.dto.PagamentoDTO;
+import com.github.cidarosa.ms_pagamento.entity.Pagamento;
+import com.github.cidarosa.ms_pagamento.service.PagamentoService;
+import com.github.cidarosa.ms_pedido.MsPedidoApplication;
+import com.github.cidarosa.ms_pedido.dto.ItemDoPedidoDTO;
+import com.github.cidarosa.ms_pedido.dto.PedidoDTO;
+import com.github.cidarosa.ms_pedido.entities.Pedido;
+import com.github.cidarosa.ms_pedido.repositories.PedidoRepository;
+import com.github.cidarosa.ms_pedido.service.PedidoService;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Alocação por requisição das listas com entidades gerenciadas (leitura anterior, reproduzida aqui
+// com as mesmas queries) contra as projeções em DTO de PagamentoService.getAll e PedidoService.findAllPedidos.
+// Chamadas direto no serviço, em uma thread: bytes alocados pela thread por chamada, mais as coletas
+// do JVM durante a rodada.
+// mvn -q compile exec:java -Dexec.args="benchmark=projection duration=20 warmup=5 out=target/projection-summary.json"
+public class ProjectionBenchmark {
+
+    public static final String ENTIDADES = "entidades";
+    public static final String PROJECAO = "projecao";
+
+    private static final int PAGAMENTOS = 1000;
+    private static final int PEDIDOS = 500;
+    private static final int ITENS_POR_PEDIDO = 3;
+    private static final int PAGE_SIZE = PedidoService.MAX_PAGE_SIZE;
+
+    // leituras anteriores às projeções
+    private static final String PAGAMENTOS_ENTIDADES = "SELECT p FROM Pagamento p ORDER BY p.id";
+    private static final String PEDIDOS_ENTIDADES = "SELECT DISTINCT p FROM Pedido p LEFT JOIN FETCH p.itens " +
+            "WHERE p.id IN :ids ORDER BY p.id";
+
+    static void run(LoadTestOptions options) throws Exception {
+
+        List<Map<String, Object>> rounds = new ArrayList<>();
+
+        try (ConfigurableApplicationContext pedido = LoadTestRunner.start(MsPedidoApplication.class, "loadtest-pedido");
+             ConfigurableApplicationContext pagamento = LoadTestRunner.start(MsPagamentoApplication.class, "loadtest-pagamento")) {
+
+            PagamentoService pagamentoService = pagamento.getBean(PagamentoService.class);
+            seedPagamentos(pagamentoService);
+            TransactionTemplate pagamentoTx = readOnly(pagamento);
+            EntityManager pagamentoEm = pagamento.getBean(EntityManager.class);
+
+            PedidoService pedidoService = pedido.getBean(PedidoService.class);
+            seedPedidos(pedidoService);
+            TransactionTemplate pedidoTx = readOnly(pedido);
+            EntityManager pedidoEm = pedido.getBean(EntityManager.class);
+            PedidoRepository pedidoRepository = pedido.getBean(PedidoRepository.class);
+
+            Map<String, Supplier<Integer>> pagamentos = new LinkedHashMap<>();
+            pagamentos.put(ENTIDADES, () -> pagamentoTx.execute(status -> pagamentoEm
+                    .createQuery(PAGAMENTOS_ENTIDADES, Pagamento.class).getResultList()
+                    .stream().map(PagamentoDTO::new).toList().size()));
+            pagamentos.put(PROJECAO, () -> pagamentoService.getAll().size());
+
+            Map<String, Supplier<Integer>> pedidos = new LinkedHashMap<>();
+            pedidos.put(ENTIDADES, () -> pedidoTx.execute(status -> {
+                List<Long> ids = pedidoRepository.findIdsAfter(0L, PageRequest.of(0, PAGE_SIZE + 1));
+                return pedidoEm.createQuery(PEDIDOS_ENTIDADES, Pedido.class)
+                        .setParameter("ids", ids.subList(0, PAGE_SIZE)).getResultList()
+                        .stream().map(PedidoDTO::new).toList().size();
+            }));
+            pedidos.put(PROJECAO, () -> pedidoService.findAllPedidos(null, PAGE_SIZE).getContent().size());
+
+            for (Map.Entry<String, Supplier<Integer>> path : pagamentos.entrySet()) {
+                rounds.add(measure(options, "GET /pagamentos", path.getKey(), path.getValue()));
+            }
+            for (Map.Entry<String, Supplier<Integer>> path : pedidos.entrySet()) {
+                rounds.add(measure(options, "GET /pedidos?limit=" + PAGE_SIZE, path.getKey(), path.getValue()));
+            }
+        }
+
+        report(options, rounds);
+    }
+
+    private static TransactionTemplate readOnly(ConfigurableApplicationContext context) {
+        TransactionTemplate template = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        template.setReadOnly(true);
+        return template;
+    }
+
+    private static void seedPagamentos(PagamentoService service) {
+        for (int i = 0; i < PAGAMENTOS; i++) {
+            service.createPagamento(new PagamentoDTO(null, BigDecimal.valueOf(100 + i % 900), "Cliente Carga",
+                    "2365412478964521", "07/32", "585", null, (long) i + 1, 2L, null));
+        }
+    }
+
+    private static void seedPedidos(PedidoService service) {
+        for (int i = 0; i < PEDIDOS; i++) {
+            List<ItemDoPedidoDTO> itens = new ArrayList<>();
+            for (int j = 0; j < ITENS_POR_PEDIDO; j++) {
+                itens.add(new ItemDoPedidoDTO(null, j + 1, "Produto Carga " + j, BigDecimal.valueOf(10 + j)));
+            }
+            service.savePedido(new PedidoDTO(null, "Cliente Carga", "12345678935", LocalDate.now(), null,
+                    null, null, itens, null));
+        }
+    }
+
+    // aquecimento e medição por tempo, na thread atual
+    private static Map<String, Object> measure(LoadTestOptions options, String endpoint, String path,
+                                               Supplier<Integer> call) {
+
+        long warmupDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.getWarmupSeconds());
+        while (System.nanoTime() < warmupDeadline) {
+            call.get();
+        }
+        System.gc();
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long gcCountBefore = gcCount();
+        long gcMillisBefore = gcMillis();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(options.getDurationSeconds());
+
+        long calls = 0;
+        long rows = 0;
+        while (System.nanoTime() < deadline) {
+            rows += call.get();
+            calls++;
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        Map<String, Object> round = new LinkedHashMap<>();
+        round.put("endpoint", endpoint);
+        round.put("path", path);
+        round.put("calls", calls);
+        round.put("rowsPerCall", calls == 0 ? 0 : rows / calls);
+        round.put("callsPerSecond", calls / elapsed);
+        round.put("microsPerCall", calls == 0 ? 0.0 : elapsed * 1e6 / calls);
+        round.put("bytesPerCall", calls == 0 ? 0 : allocated / calls);
+        round.put("gcCount", gcCount() - gcCountBefore);
+        round.put("gcMillis", gcMillis() - gcMillisBefore);
+        return round;
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private static long gcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+
+    private static void report(LoadTestOptions options, List<Map<String, Object>> rounds) throws Exception {
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("durationSeconds", options.getDurationSeconds());
+        config.put("warmupSeconds", options.getWarmupSeconds());
+        config.put("pagamentos", PAGAMENTOS);
+        config.put("pedidos", PEDIDOS);
+        config.put("itensPorPedido", ITENS_POR_PEDIDO);
+        config.put("javaVersion", Runtime.version().toString());
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("config", config);
+        summary.put("rounds", rounds);
+
+        System.out.printf("%n%-22s %-10s %8s %6s %9s %10s %12s %5s %7s%n",
+                "endpoint", "path", "calls", "rows", "calls/s", "us/call", "bytes/call", "gc", "gc ms");
+        for (Map<String, Object> round : rounds) {
+            System.out.printf("%-22s %-10s %8d %6d %9.1f %10.1f %12d %5d %7d%n",
+                    round.get("endpoint"), round.get("path"), (Long) round.get("calls"),
+                    (Long) round.get("rowsPerCall"), round.get("callsPerSecond"), round.get("microsPerCall"),
+                    (Long) round.get("bytesPerCall"), (Long) round.get("gcCount"), (Long) round.get("gcMillis"));
+        }
+
+        Files.createDirectories(options.getOut().toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(options.getOut().toFile(), summary);
+        System.out.println("Resumo gravado em " + options.getOut());
+    }
+}
@@ -0,0 +1,138 @@
+package com.github.cidarosa.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.cidarosa.ms_pagamento.MsPagamentoApplication;
+import com.github.cidarosa.ms_pagamento.dto.PagamentoDTO;
+import com.github.cidarosa.ms_pagamento.reactive.ReactivePagamentoServer;
+import com.github.cidarosa.ms_pagamento.service.PagamentoService;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Quantas conexões simultâneas cada pilha sustenta com p99 dentro do alvo em GET /pagamentos/{id}:
+// Tomcat + JPA (uma thread por requisição) contra Reactor Netty + R2DBC (ReactivePagamentoServer),
+// no mesmo processo e sobre o mesmo banco. Modelo fechado - cada cliente mantém uma requisição em curso.
+// mvn -q compile exec:java -Dexec.args="benchmark=reactive concurrency=50,200,800,1600 p99-target=50 out=target/reactive-summary.json"
+public class ReactiveReadBenchmark {
+
+    public static final String MVC = "mvc";
+    public static final String REACTIVE = "reactive";
+
+    private static final int PAGAMENTOS = 1000;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    static void run(LoadTestOptions options) throws Exception {
+
+        List<Map<String, Object>> rounds = new ArrayList<>();
+        Map<String, Integer> sustained = new LinkedHashMap<>();
+
+        try (ConfigurableApplicationContext pagamento = LoadTestRunner.start(
+                MsPagamentoApplication.class, "loadtest-pagamento",
+                "pagamento.reactive.enabled=true", "pagamento.reactive.port=0")) {
+
+            List<Long> ids = seed(pagamento.getBean(PagamentoService.class));
+            Map<String, String> stacks = new LinkedHashMap<>();
+            stacks.put(MVC, LoadTestRunner.baseUrl(pagamento));
+            stacks.put(REACTIVE, "http://localhost:" + pagamento.getBean(ReactivePagamentoServer.class).getPort());
+
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(2))
+                    .build();
+
+            for (Map.Entry<String, String> stack : stacks.entrySet()) {
+                sustained.put(stack.getKey(), 0);
+                Callable<Boolean> getById = () -> getById(client, stack.getValue(), ids);
+                for (int concurrency : options.getConcurrency()) {
+                    if (options.getWarmupSeconds() > 0) {
+                        ThreadModelBenchmark.drive(concurrency, options.getWarmupSeconds(), getById);
+                    }
+                    long start = System.nanoTime();
+                    EndpointStats stats = ThreadModelBenchmark.drive(concurrency, options.getDurationSeconds(), getById);
+                    double elapsed = (System.nanoTime() - start) / 1e9;
+
+                    Map<String, Object> summary = stats.summary(elapsed);
+                    // sustentado: p99 dentro do alvo e sem erros
+                    if ((Double) summary.get("p99Ms") <= options.getP99TargetMs() && (Long) summary.get("errors") == 0) {
+                        sustained.merge(stack.getKey(), concurrency, Math::max);
+                    }
+                    Map<String, Object> round = new LinkedHashMap<>();
+                    round.put("stack", stack.getKey());
+                    round.put("concurrency", concurrency);
+                    round.put("getById", summary);
+                    rounds.add(round);
+                }
+            }
+        }
+
+        report(options, rounds, sustained);
+    }
+
+    private static List<Long> seed(PagamentoService service) {
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < PAGAMENTOS; i++) {
+            PagamentoDTO dto = new PagamentoDTO(null, BigDecimal.valueOf(100 + i % 900), "Cliente Carga",
+                    "2365412478964521", "07/32", "585", null, (long) i + 1, 2L, null);
+            ids.add(service.createPagamento(dto).getId());
+        }
+        return ids;
+    }
+
+    private static boolean getById(HttpClient client, String baseUrl, List<Long> ids) throws Exception {
+
+        long id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/pagamentos/" + id))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void report(LoadTestOptions options, List<Map<String, Object>> rounds,
+                               Map<String, Integer> sustained) throws Exception {
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("durationSeconds", options.getDurationSeconds());
+        config.put("warmupSeconds", options.getWarmupSeconds());
+        config.put("concurrency", options.getConcurrency());
+        config.put("p99TargetMs", options.getP99TargetMs());
+        config.put("pagamentos", PAGAMENTOS);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("config", config);
+        summary.put("rounds", rounds);
+        summary.put("sustainedConcurrency", sustained);
+
+        System.out.printf("%n%-10s %11s %8s %9s %9s %9s %9s %7s%n",
+                "stack", "concurrency", "count", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "err%");
+        for (Map<String, Object> round : rounds) {
+            Map<String, Object> row = (Map<String, Object>) round.get("getById");
+            System.out.printf("%-10s %11d %8d %9.1f %9.2f %9.2f %9.2f %6.2f%%%n",
+                    round.get("stack"), (Integer) round.get("concurrency"), (Long) row.get("count"),
+                    row.get("throughputPerSecond"), row.get("p50Ms"), row.get("p99Ms"), row.get("p999Ms"),
+                    (Double) row.get("errorRate") * 100);
+        }
+        System.out.printf("concorrência sustentada com p99 <= %.0f ms: %s%n", options.getP99TargetMs(), sustained);
+
+        Files.createDirectories(options.getOut().toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(options.getOut().toFile(), summary);
+        System.out.println("Resumo gravado em " + options.getOut());
+    }
+}
@@ -0,0 +1,173 @@
+package com.github.cidarosa.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// fluxos executados contra os dois serviços por HTTP real
+public class Scenarios {
+
+    public static final String CHECKOUT = "checkout";
+    public static final String BROWSE = "browse";
+    public static final String UPDATE = "update";
+    public static final List<String> NAMES = List.of(CHECKOUT, BROWSE, UPDATE);
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    // últimos pedidos criados - alvo dos cenários de atualização
+    private static final int RECENT_IDS = 1024;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(2))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String pedidoUrl;
+    private final String pagamentoUrl;
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    private final AtomicLongArray recentIds = new AtomicLongArray(RECENT_IDS);
+    private final AtomicLong created = new AtomicLong();
+
+    public Scenarios(String pedidoUrl, String pagamentoUrl) {
+        this.pedidoUrl = pedidoUrl;
+        this.pagamentoUrl = pagamentoUrl;
+    }
+
+    public Map<String, EndpointStats> getStats() {
+        return stats;
+    }
+
+    public void run(String scenario) throws Exception {
+        switch (scenario) {
+            case CHECKOUT -> checkout();
+            case BROWSE -> browse();
+            case UPDATE -> update();
+            default -> throw new IllegalArgumentException("Cenário desconhecido: " + scenario);
+        }
+    }
+
+    // cria o pedido, paga, e lê os dois de volta
+    private void checkout() throws Exception {
+
+        JsonNode pedido = send("POST /pedidos", post(pedidoUrl + "/pedidos", newPedido()));
+        if (pedido == null) {
+            return;
+        }
+        long pedidoId = pedido.get("id").asLong();
+        recentIds.set((int) (created.getAndIncrement() % RECENT_IDS), pedidoId);
+
+        JsonNode pagamento = send("POST /pagamentos",
+                post(pagamentoUrl + "/pagamentos", newPagamento(pedidoId)));
+
+        send("GET /pedidos/{id}", get(pedidoUrl + "/pedidos/" + pedidoId));
+        if (pagamento != null) {
+            send("GET /pagamentos/{id}", get(pagamentoUrl + "/pagamentos/" + pagamento.get("id").asLong()));
+        }
+    }
+
+    private void browse() throws Exception {
+        send("GET /pedidos", get(pedidoUrl + "/pedidos?limit=20"));
+    }
+
+    // lê um pedido recente e altera a quantidade de um item
+    private void update() throws Exception {
+
+        long count = created.get();
+        if (count == 0) {
+            browse();
+            return;
+        }
+        long id = recentIds.get((int) (ThreadLocalRandom.current().nextLong(Math.min(count, RECENT_IDS))));
+        JsonNode pedido = send("GET /pedidos/{id}", get(pedidoUrl + "/pedidos/" + id));
+        if (pedido == null) {
+            return;
+        }
+        ObjectNode body = (ObjectNode) pedido;
+        ObjectNode item = (ObjectNode) body.withArray("itens").get(0);
+        item.put("quantidade", item.get("quantidade").asInt() % 9 + 1);
+        send("PUT /pedidos/{id}", put(pedidoUrl + "/pedidos/" + id, body));
+    }
+
+    private ObjectNode newPedido() {
+
+        ObjectNode pedido = objectMapper.createObjectNode();
+        pedido.put("nome", "Cliente Carga");
+        pedido.put("cpf", String.format("%011d", ThreadLocalRandom.current().nextLong(100_000_000_000L)));
+        ArrayNode itens = pedido.putArray("itens");
+        int quantidadeItens = ThreadLocalRandom.current().nextInt(1, 6);
+        for (int i = 0; i < quantidadeItens; i++) {
+            ObjectNode item = itens.addObject();
+            item.put("quantidade", ThreadLocalRandom.current().nextInt(1, 4));
+            item.put("descricao", "Produto " + i);
+            item.put("valorUnitario", 10 + ThreadLocalRandom.current().nextInt(990));
+        }
+        return pedido;
+    }
+
+    private ObjectNode newPagamento(long pedidoId) {
+
+        ObjectNode pagamento = objectMapper.createObjectNode();
+        pagamento.put("valor", 100 + ThreadLocalRandom.current().nextInt(900));
+        pagamento.put("nome", "Cliente Carga");
+        pagamento.put("numeroDoCartao", "2365412478964521");
+        pagamento.put("validade", "07/32");
+        pagamento.put("codigoDeSeguranca", "585");
+        pagamento.put("pedidoId", pedidoId);
+        pagamento.put("formaDePagamentoId", 2);
+        return pagamento;
+    }
+
+    // retorna o corpo da resposta 2xx, ou null em caso de erro
+    private JsonNode send(String endpoint, HttpRequest request) {
+
+        EndpointStats endpointStats = stats.computeIfAbsent(endpoint, key -> new EndpointStats());
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            boolean success = response.statusCode() / 100 == 2;
+            endpointStats.record(System.nanoTime() - start, success);
+            return success ? objectMapper.readTree(response.body()) : null;
+        } catch (Exception e) {
+            endpointStats.record(System.nanoTime() - start, false);
+            return null;
+        }
+    }
+
+    private HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String url, JsonNode body) throws Exception {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+    }
+
+    private HttpRequest put(String url, JsonNode body) throws Exception {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+    }
+}
@@ -0,0 +1,185 @@
+package com.github.cidarosa.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.cidarosa.ms_pagamento.MsPagamentoApplication;
+import com.github.cidarosa.ms_pagamento.dto.PagamentoDTO;
+import com.github.cidarosa.ms_pagamento.entity.Status;
+import com.github.cidarosa.ms_pagamento.service.PagamentoService;
+import com.github.cidarosa.ms_pagamento.service.exceptions.ResourceNotFoundException;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+
+// GET /pagamentos/{id} de pagamentos já finalizados (CONFIRMADO/CANCELADO) com o cache de 2º nível
+// desligado e ligado - mesmo processo, mesmo banco, modelo fechado. Ao final da rodada com cache,
+// confere que updatePagamento e deletePagamento não deixam leituras antigas no cache.
+// mvn -q compile exec:java -Dexec.args="benchmark=l2cache concurrency=10,50 duration=20 out=target/l2cache-summary.json"
+public class SecondLevelCacheBenchmark {
+
+    public static final String OFF = "off";
+    public static final String ON = "on";
+
+    private static final int PAGAMENTOS = 1000;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    static void run(LoadTestOptions options) throws Exception {
+
+        List<Map<String, Object>> rounds = new ArrayList<>();
+        Map<String, Boolean> invalidacao = new LinkedHashMap<>();
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+
+        for (String cache : List.of(OFF, ON)) {
+            try (ConfigurableApplicationContext pagamento = LoadTestRunner.start(
+                    MsPagamentoApplication.class, "loadtest-pagamento",
+                    "spring.jpa.properties.hibernate.cache.use_second_level_cache=" + ON.equals(cache),
+                    "spring.jpa.properties.hibernate.generate_statistics=true")) {
+
+                PagamentoService service = pagamento.getBean(PagamentoService.class);
+                Statistics statistics = pagamento.getBean(EntityManagerFactory.class)
+                        .unwrap(SessionFactory.class).getStatistics();
+                List<Long> ids = seed(service);
+                String baseUrl = LoadTestRunner.baseUrl(pagamento);
+                Callable<Boolean> getById = () -> getById(client, baseUrl, ids);
+
+                for (int concurrency : options.getConcurrency()) {
+                    if (options.getWarmupSeconds() > 0) {
+                        ThreadModelBenchmark.drive(concurrency, options.getWarmupSeconds(), getById);
+                    }
+                    statistics.clear();
+                    long start = System.nanoTime();
+                    EndpointStats stats = ThreadModelBenchmark.drive(concurrency, options.getDurationSeconds(), getById);
+                    double elapsed = (System.nanoTime() - start) / 1e9;
+
+                    Map<String, Object> summary = stats.summary(elapsed);
+                    long count = (Long) summary.get("count");
+                    long hits = statistics.getSecondLevelCacheHitCount();
+                    long misses = statistics.getSecondLevelCacheMissCount();
+
+                    Map<String, Object> round = new LinkedHashMap<>();
+                    round.put("cache", cache);
+                    round.put("concurrency", concurrency);
+                    round.put("getById", summary);
+                    round.put("statementsPerRequest", count == 0 ? 0.0 : (double) statistics.getPrepareStatementCount() / count);
+                    round.put("hitRatio", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+                    rounds.add(round);
+                }
+
+                if (ON.equals(cache)) {
+                    invalidacao.putAll(verificarInvalidacao(service, ids));
+                }
+            }
+        }
+
+        report(options, rounds, invalidacao);
+    }
+
+    // metade CONFIRMADO, metade CANCELADO - os status em que o pagamento passa a ser só lido
+    private static List<Long> seed(PagamentoService service) {
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < PAGAMENTOS; i++) {
+            Status status = i % 2 == 0 ? Status.CONFIRMADO : Status.CANCELADO;
+            PagamentoDTO dto = new PagamentoDTO(null, BigDecimal.valueOf(100 + i % 900), "Cliente Carga",
+                    "2365412478964521", "07/32", "585", null, (long) i + 1, 2L, null);
+            Long id = service.createPagamento(dto).getId();
+            ids.add(id);
+        }
+        // em massa, como a liquidação - cada entrada alterada é atualizada no cache, sem invalidar a região
+        service.updateStatus(ids.subList(0, PAGAMENTOS / 2), Status.CONFIRMADO);
+        service.updateStatus(ids.subList(PAGAMENTOS / 2, PAGAMENTOS), Status.CANCELADO);
+        return ids;
+    }
+
+    private static boolean getById(HttpClient client, String baseUrl, List<Long> ids) throws Exception {
+
+        long id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/pagamentos/" + id))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+    }
+
+    // lê (entra no cache), altera/remove e lê de novo - a segunda leitura tem de refletir a escrita
+    private static Map<String, Boolean> verificarInvalidacao(PagamentoService service, List<Long> ids) {
+
+        Long atualizado = ids.get(0);
+        PagamentoDTO antes = service.getById(atualizado);
+        BigDecimal novoValor = antes.getValor().add(BigDecimal.ONE);
+        service.updatePagamento(atualizado, new PagamentoDTO(null, novoValor, antes.getNome(),
+                "2365412478964521", "07/32", "585", Status.CANCELADO, antes.getPedidoId(), 2L, null));
+        PagamentoDTO depois = service.getById(atualizado);
+
+        Long removido = ids.get(1);
+        service.getById(removido);
+        service.deletePagamento(removido);
+        boolean removidoInvisivel;
+        try {
+            service.getById(removido);
+            removidoInvisivel = false;
+        } catch (ResourceNotFoundException e) {
+            removidoInvisivel = true;
+        }
+
+        Map<String, Boolean> result = new LinkedHashMap<>();
+        result.put("updatePagamento", novoValor.compareTo(depois.getValor()) == 0
+                && depois.getStatus() == Status.CANCELADO
+                && depois.getVersion() > antes.getVersion());
+        result.put("deletePagamento", removidoInvisivel);
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void report(LoadTestOptions options, List<Map<String, Object>> rounds,
+                               Map<String, Boolean> invalidacao) throws Exception {
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("durationSeconds", options.getDurationSeconds());
+        config.put("warmupSeconds", options.getWarmupSeconds());
+        config.put("concurrency", options.getConcurrency());
+        config.put("pagamentos", PAGAMENTOS);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("config", config);
+        summary.put("rounds", rounds);
+        summary.put("invalidacao", invalidacao);
+
+        System.out.printf("%n%-6s %11s %8s %9s %9s %9s %9s %9s %7s%n",
+                "cache", "concurrency", "count", "req/s", "p50 ms", "p99 ms", "sql/req", "hit%", "err%");
+        for (Map<String, Object> round : rounds) {
+            Map<String, Object> row = (Map<String, Object>) round.get("getById");
+            System.out.printf("%-6s %11d %8d %9.1f %9.2f %9.2f %9.2f %8.1f%% %6.2f%%%n",
+                    round.get("cache"), (Integer) round.get("concurrency"), (Long) row.get("count"),
+                    row.get("throughputPerSecond"), row.get("p50Ms"), row.get("p99Ms"),
+                    round.get("statementsPerRequest"), (Double) round.get("hitRatio") * 100,
+                    (Double) row.get("errorRate") * 100);
+        }
+        System.out.println("invalidação: " + invalidacao);
+
+        Files.createDirectories(options.getOut().toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(options.getOut().toFile(), summary);
+        System.out.println("Resumo gravado em " + options.getOut());
+    }
+}
@@ -0,0 +1,150 @@
+package com.github.cidarosa.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.cidarosa.ms_pagamento.MsPagamentoApplication;
+import com.github.cidarosa.ms_pedido.MsPedidoApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Compara os serviços com spring.threads.virtual.enabled=false/true em modelo fechado:
+// N clientes executam cenários em sequência, sem pausa, para cada nível de concorrência.
+// Os clientes são sempre threads de plataforma - só o lado servidor muda entre as rodadas.
+// A rodada virtual requer rodar em JDK 21+ (o build com -Pjava21 é opcional).
+// mvn -q compile exec:java -Dexec.args="benchmark=threads concurrency=50,200,800 duration=20 out=target/thread-model-summary.json"
+public class ThreadModelBenchmark {
+
+    public static final String PLATFORM = "platform";
+    public static final String VIRTUAL = "virtual";
+    public static final List<String> THREADS = List.of(PLATFORM, VIRTUAL);
+
+    static void run(LoadTestOptions options) throws Exception {
+
+        List<String> weighted = LoadTestRunner.weighted(options.getMix());
+        List<Map<String, Object>> rounds = new ArrayList<>();
+
+        for (String threads : options.getThreads()) {
+            if (VIRTUAL.equals(threads) && Runtime.version().feature() < 21) {
+                System.out.printf("virtual threads requerem Java 21 (JDK atual: %d) - rodada ignorada%n",
+                        Runtime.version().feature());
+                continue;
+            }
+            String virtual = "spring.threads.virtual.enabled=" + VIRTUAL.equals(threads);
+            try (ConfigurableApplicationContext pedido = LoadTestRunner.start(
+                    MsPedidoApplication.class, "loadtest-pedido", virtual);
+                 ConfigurableApplicationContext pagamento = LoadTestRunner.start(
+                         MsPagamentoApplication.class, "loadtest-pagamento", virtual)) {
+
+                Scenarios scenarios = new Scenarios(LoadTestRunner.baseUrl(pedido), LoadTestRunner.baseUrl(pagamento));
+                for (int concurrency : options.getConcurrency()) {
+                    if (options.getWarmupSeconds() > 0) {
+                        drive(concurrency, options.getWarmupSeconds(), scenario(scenarios, weighted));
+                    }
+                    scenarios.getStats().values().forEach(EndpointStats::reset);
+
+                    long start = System.nanoTime();
+                    EndpointStats stats = drive(concurrency, options.getDurationSeconds(), scenario(scenarios, weighted));
+                    double elapsed = (System.nanoTime() - start) / 1e9;
+
+                    rounds.add(round(threads, concurrency, stats.summary(elapsed), scenarios.getStats()));
+                }
+            }
+        }
+
+        report(options, rounds);
+    }
+
+    // modelo fechado: cada cliente repete a ação até o prazo, sem pausa; a latência é a da ação completa
+    static EndpointStats drive(int concurrency, int seconds, Callable<Boolean> action) throws InterruptedException {
+
+        EndpointStats stats = new EndpointStats();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            clients.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    boolean success;
+                    try {
+                        success = action.call();
+                    } catch (Exception e) {
+                        success = false;
+                    }
+                    stats.record(System.nanoTime() - start, success);
+                }
+            });
+        }
+        clients.shutdown();
+        clients.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+        return stats;
+    }
+
+    private static Callable<Boolean> scenario(Scenarios scenarios, List<String> weighted) {
+        return () -> {
+            scenarios.run(weighted.get(ThreadLocalRandom.current().nextInt(weighted.size())));
+            return true;
+        };
+    }
+
+    // erros vêm das requisições (respostas não-2xx, ex.: 503 com o pool esgotado)
+    private static Map<String, Object> round(String threads, int concurrency, Map<String, Object> scenarios,
+                                             Map<String, EndpointStats> endpointStats) {
+
+        long requests = 0;
+        long errors = 0;
+        for (EndpointStats stats : endpointStats.values()) {
+            Map<String, Object> summary = stats.summary(0);
+            requests += (Long) summary.get("count");
+            errors += (Long) summary.get("errors");
+        }
+
+        Map<String, Object> round = new LinkedHashMap<>();
+        round.put("threads", threads);
+        round.put("concurrency", concurrency);
+        round.put("scenarios", scenarios);
+        round.put("requests", requests);
+        round.put("requestErrorRate", requests == 0 ? 0.0 : (double) errors / requests);
+        return round;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void report(LoadTestOptions options, List<Map<String, Object>> rounds) throws Exception {
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("durationSeconds", options.getDurationSeconds());
+        config.put("warmupSeconds", options.getWarmupSeconds());
+        config.put("concurrency", options.getConcurrency());
+        config.put("threads", options.getThreads());
+        config.put("mix", options.getMix());
+        config.put("javaVersion", Runtime.version().toString());
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("config", config);
+        summary.put("rounds", rounds);
+
+        System.out.printf("%n%-10s %11s %8s %9s %9s %9s %9s %7s%n",
+                "threads", "concurrency", "count", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "err%");
+        for (Map<String, Object> round : rounds) {
+            Map<String, Object> scenarios = (Map<String, Object>) round.get("scenarios");
+            System.out.printf("%-10s %11d %8d %9.1f %9.2f %9.2f %9.2f %6.2f%%%n",
+                    round.get("threads"), (Integer) round.get("concurrency"), (Long) scenarios.get("count"),
+                    scenarios.get("throughputPerSecond"), scenarios.get("p50Ms"), scenarios.get("p99Ms"),
+                    scenarios.get("p999Ms"), (Double) round.get("requestErrorRate") * 100);
+        }
+
+        Files.createDirectories(options.getOut().toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(options.getOut().toFile(), summary);
+        System.out.println("Resumo gravado em " + options.getOut());
+    }
+}
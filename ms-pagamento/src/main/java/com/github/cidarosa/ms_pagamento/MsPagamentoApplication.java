@@ -1,9 +1,18 @@
 package com.github.cidarosa.ms_pagamento;
 
+import com.github.cidarosa.sqltrace.SqlTraceConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+// R2DBC só no caminho de leitura reativo (ReactivePagamentoServer), que cria o próprio pool;
+// sem isso o R2dbcTransactionManager substituiria o JpaTransactionManager do @Transactional
+@SpringBootApplication(exclude = {R2dbcAutoConfiguration.class, R2dbcTransactionManagerAutoConfiguration.class})
+@EnableScheduling
+@Import(SqlTraceConfig.class)
 public class MsPagamentoApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,303 @@
+package com.github.cidarosa.ms_pagamento.autorizacao;
+
+import com.github.cidarosa.ms_pagamento.dto.PagamentoDTO;
+import com.github.cidarosa.ms_pagamento.dto.PagamentoStatusBulkResultDTO;
+import com.github.cidarosa.ms_pagamento.dto.PagamentoStatusDTO;
+import com.github.cidarosa.ms_pagamento.entity.Status;
+import com.github.cidarosa.ms_pagamento.service.PagamentoService;
+import com.github.cidarosa.ms_pagamento.service.exceptions.AutorizacaoSaturadaException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// autorização assíncrona (pagamento.autorizacao.async.enabled): o POST grava o pagamento CRIADO com a
+// autorização pendente e devolve 202; a autorização (Autorizador) roda em um pool limitado (workers +
+// queue-depth vagas) e os resultados são gravados em lote por uma única thread, via updateStatus
+// (outbox e receita inclusos). A vaga só é devolvida depois da gravação - fila de resultados limitada.
+// Autorização sem resultado (falha, instância reiniciada) vence após redrive.after e é reenviada.
+// O estado "pendente" é local à instância - o status gravado vale para todas
+@Component
+public class AutorizacaoQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(AutorizacaoQueue.class);
+
+    private static final long POLL_MILLIS = 100;
+
+    @Autowired
+    private PagamentoService service;
+
+    @Autowired
+    private Autorizador autorizador;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Value("${pagamento.autorizacao.async.enabled:false}")
+    private boolean enabled;
+
+    @Value("${pagamento.autorizacao.workers:4}")
+    private int workers;
+
+    @Value("${pagamento.autorizacao.queue-depth:100}")
+    private int queueDepth;
+
+    @Value("${pagamento.autorizacao.batch-size:100}")
+    private int batchSize;
+
+    @Value("${pagamento.autorizacao.long-poll-max:20s}")
+    private Duration longPollMax;
+
+    @Value("${pagamento.autorizacao.redrive.after:30s}")
+    private Duration reenvioApos;
+
+    private final Map<Long, CompletableFuture<Status>> pendentes = new ConcurrentHashMap<>();
+    private final BlockingQueue<Resultado> resultados = new LinkedBlockingQueue<>();
+
+    // reservada antes de gravar e devolvida depois do resultado gravado: com o pool cheio,
+    // nada é gravado e o cliente recebe 503
+    private Semaphore vagas;
+    private ThreadPoolExecutor executor;
+    private Thread writer;
+    private Counter rejeitadas;
+    private Counter reenviadas;
+    private volatile boolean running;
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        vagas = new Semaphore(workers + queueDepth);
+        // fila do executor sem limite próprio - o limite é o das vagas, tomadas antes do execute
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>());
+        new ExecutorServiceMetrics(executor, "autorizacao", Tags.empty()).bindTo(registry);
+        Gauge.builder("pagamento.autorizacao.pendentes", pendentes, Map::size)
+                .description("Pagamentos aguardando autorização ou gravação do resultado")
+                .register(registry);
+        rejeitadas = Counter.builder("pagamento.autorizacao.rejeitadas")
+                .description("POSTs recusados com o pool de autorização cheio")
+                .register(registry);
+        reenviadas = Counter.builder("pagamento.autorizacao.reenviadas")
+                .description("Autorizações vencidas sem resultado e reenviadas")
+                .register(registry);
+
+        running = true;
+        writer = new Thread(this::gravarResultados, "autorizacao-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void close() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // grava CRIADO e enfileira a autorização; sem vaga lança AutorizacaoSaturadaException (503)
+    public PagamentoDTO submeter(PagamentoDTO dto) {
+
+        if (!vagas.tryAcquire()) {
+            rejeitadas.increment();
+            throw new AutorizacaoSaturadaException("Fila de autorização cheia. Tente novamente mais tarde");
+        }
+        PagamentoDTO created;
+        try {
+            created = service.createPagamentoPendente(dto, reenvioApos);
+        } catch (RuntimeException e) {
+            vagas.release();
+            throw e;
+        }
+        enfileirar(created);
+        return created;
+    }
+
+    @Scheduled(fixedDelayString = "${pagamento.autorizacao.redrive.interval:10s}")
+    public void scheduledReenvio() {
+        if (enabled) {
+            reenviar();
+        }
+    }
+
+    // reenvia autorizações vencidas (ms-pedido indisponível, falha ao gravar, instância reiniciada)
+    // só com as vagas livres - não toma o lugar de POSTs; retorna quantas foram reenviadas
+    public int reenviar() {
+
+        int livres = vagas.availablePermits();
+        if (livres == 0) {
+            return 0;
+        }
+        int reenviados = 0;
+        for (PagamentoDTO dto : service.reservarAutorizacoesVencidas(livres, reenvioApos)) {
+            // ainda em andamento aqui, ou vagas tomadas no meio tempo - vence de novo depois
+            if (pendentes.containsKey(dto.getId()) || !vagas.tryAcquire()) {
+                continue;
+            }
+            enfileirar(dto);
+            reenviados++;
+        }
+        if (reenviados > 0) {
+            reenviadas.increment(reenviados);
+            logger.info("{} autorizações vencidas reenviadas", reenviados);
+        }
+        return reenviados;
+    }
+
+    // chamado com a vaga já reservada
+    private void enfileirar(PagamentoDTO dto) {
+        pendentes.put(dto.getId(), new CompletableFuture<>());
+        executor.execute(() -> autorizar(dto));
+    }
+
+    // status atual; com wait > 0 e autorização pendente, responde quando o resultado for gravado
+    // ou quando o prazo (limitado a long-poll-max) acabar - sem segurar a thread da requisição
+    public CompletableFuture<PagamentoStatusDTO> aguardar(Long id, Duration wait) {
+
+        CompletableFuture<Status> pendente = pendentes.get(id);
+        if (pendente == null) {
+            return CompletableFuture.completedFuture(new PagamentoStatusDTO(id, service.getStatus(id), false));
+        }
+        Duration prazo = wait.compareTo(longPollMax) > 0 ? longPollMax : wait;
+        if (prazo.isZero() || prazo.isNegative()) {
+            return CompletableFuture.completedFuture(new PagamentoStatusDTO(id, Status.CRIADO, true));
+        }
+        // copy(): o timeout desta espera não completa o resultado para os demais
+        return pendente.copy()
+                .completeOnTimeout(null, prazo.toMillis(), TimeUnit.MILLISECONDS)
+                .thenApply(status -> status == null
+                        ? new PagamentoStatusDTO(id, Status.CRIADO, true)
+                        : new PagamentoStatusDTO(id, status, false));
+    }
+
+    private void autorizar(PagamentoDTO dto) {
+        Status status = null;
+        try {
+            status = autorizador.autorizar(dto);
+        } catch (RuntimeException e) {
+            // ms-pedido indisponível ou falha inesperada - continua CRIADO e pendente, para o reenvio
+            logger.warn("Falha ao autorizar o pagamento {}: {}", dto.getId(), e.getMessage());
+        }
+        // no máximo uma entrada por vaga - a vaga volta quando o writer gravar
+        resultados.add(new Resultado(dto.getId(), status));
+    }
+
+    // uma thread grava tudo o que acumulou desde o último lote: sob carga, um UPDATE por status
+    // para até batch-size pagamentos; com pouca carga, lotes pequenos sem espera extra
+    private void gravarResultados() {
+        List<Resultado> lote = new ArrayList<>();
+        while (running || !resultados.isEmpty()) {
+            try {
+                Resultado primeiro = resultados.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (primeiro == null) {
+                    continue;
+                }
+                lote.add(primeiro);
+                resultados.drainTo(lote, batchSize - 1);
+                gravar(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // parte do lote pode já ter sido gravada - quem espera recebe o status gravado;
+                // pendências não removidas são reenviadas quando vencerem
+                logger.error("Falha ao gravar {} resultados de autorização", lote.size(), e);
+                lote.forEach(resultado -> concluirComStatusGravado(resultado.id()));
+            } finally {
+                vagas.release(lote.size());
+                lote.clear();
+            }
+        }
+    }
+
+    private void gravar(List<Resultado> lote) {
+
+        Map<Status, List<Long>> porStatus = new EnumMap<>(Status.class);
+        Map<Long, Status> concluidos = new LinkedHashMap<>();
+        List<Long> semResultado = new ArrayList<>();
+        List<Long> rejeitados = new ArrayList<>();
+        for (Resultado resultado : lote) {
+            if (resultado.status() == null) {
+                // falha - pendência mantida para o reenvio
+                semResultado.add(resultado.id());
+            } else if (resultado.status() == Status.CRIADO) {
+                // sem decisão do Autorizador - fica CRIADO e não é reenviado
+                concluidos.put(resultado.id(), Status.CRIADO);
+            } else {
+                porStatus.computeIfAbsent(resultado.status(), status -> new ArrayList<>()).add(resultado.id());
+            }
+        }
+        porStatus.forEach((status, ids) -> {
+            PagamentoStatusBulkResultDTO result = service.updateStatus(ids, status);
+            result.getAlterados().forEach(id -> concluidos.put(id, status));
+            // alterado (ex.: PUT) ou apagado por outra requisição no meio tempo - vale o que está gravado
+            rejeitados.addAll(result.getRejeitados());
+            // chunk desfeito por erro no banco - nada gravado, pendência mantida para o reenvio
+            semResultado.addAll(result.getFalhas());
+        });
+
+        // pendências removidas antes de responder a quem espera - o resultado já está gravado
+        List<Long> encerrados = new ArrayList<>(concluidos.keySet());
+        encerrados.addAll(rejeitados);
+        if (!encerrados.isEmpty()) {
+            service.removerAutorizacoesPendentes(encerrados);
+        }
+        semResultado.forEach(id -> concluir(id, Status.CRIADO));
+        concluidos.forEach(this::concluir);
+        rejeitados.forEach(this::concluirComStatusGravado);
+    }
+
+    // apagado no meio tempo (ResourceNotFoundException) ou banco indisponível - a espera termina com o erro
+    private void concluirComStatusGravado(Long id) {
+        try {
+            concluir(id, service.getStatus(id));
+        } catch (RuntimeException e) {
+            CompletableFuture<Status> pendente = pendentes.remove(id);
+            if (pendente != null) {
+                pendente.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void concluir(Long id, Status status) {
+        CompletableFuture<Status> pendente = pendentes.remove(id);
+        if (pendente != null) {
+            pendente.complete(status);
+        }
+    }
+
+    private record Resultado(Long id, Status status) {
+    }
+}
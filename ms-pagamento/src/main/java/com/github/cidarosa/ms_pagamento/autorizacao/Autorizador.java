@@ -0,0 +1,13 @@
+package com.github.cidarosa.ms_pagamento.autorizacao;
+
+import com.github.cidarosa.ms_pagamento.dto.PagamentoDTO;
+import com.github.cidarosa.ms_pagamento.entity.Status;
+
+// etapa de autorização executada pelos workers da AutorizacaoQueue - a decisão fica aqui, não na fila.
+// Padrão: PedidoAutorizador; um gateway de pagamento entra como outro bean (@Primary)
+public interface Autorizador {
+
+    // CONFIRMADO ou CANCELADO (recusado); CRIADO = sem decisão, o pagamento fica CRIADO e não é reenviado.
+    // Falha transitória (ex.: PedidoIndisponivelException) deve ser lançada - a autorização é reenviada
+    Status autorizar(PagamentoDTO dto);
+}
@@ -0,0 +1,32 @@
+package com.github.cidarosa.ms_pagamento.autorizacao;
+
+import com.github.cidarosa.ms_pagamento.client.PedidoClient;
+import com.github.cidarosa.ms_pagamento.dto.PagamentoDTO;
+import com.github.cidarosa.ms_pagamento.entity.Status;
+import com.github.cidarosa.ms_pagamento.service.exceptions.PedidoInvalidoException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+// autoriza pela situação do pedido: pagável confirma, recusado cancela.
+// Sem a verificação (pagamento.pedido-client.verificar-pedido=false) não há o que decidir - o pagamento
+// fica CRIADO, como no POST síncrono; nada é confirmado sem ter sido verificado
+@Component
+public class PedidoAutorizador implements Autorizador {
+
+    @Autowired
+    private PedidoClient pedidoClient;
+
+    // ms-pedido indisponível propaga PedidoIndisponivelException
+    @Override
+    public Status autorizar(PagamentoDTO dto) {
+        if (!pedidoClient.isVerificarPedido()) {
+            return Status.CRIADO;
+        }
+        try {
+            pedidoClient.verificarPagavel(dto.getPedidoId());
+            return Status.CONFIRMADO;
+        } catch (PedidoInvalidoException e) {
+            return Status.CANCELADO;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.github.cidarosa.ms_pagamento.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.cidarosa.ms_pagamento.dto.PagamentoStatusEventoDTO;
+import com.github.cidarosa.ms_pagamento.service.exceptions.PedidoIndisponivelException;
+import com.github.cidarosa.ms_pagamento.service.exceptions.PedidoInvalidoException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+// chamadas ao ms-pedido com latência limitada:
+// pool de conexões com keep-alive, timeouts, bulkhead, circuit breaker e cache curto
+@Component
+public class PedidoClient {
+
+    public static final String AGUARDANDO_PAGAMENTO = "AGUARDANDO_PAGAMENTO";
+    // origens de PAGO na tabela de transições do ms-pedido - pedido recém-criado (REALIZADO) já aceita pagamento
+    public static final Set<String> STATUS_PAGAVEIS = Set.of("REALIZADO", AGUARDANDO_PAGAMENTO);
+
+    private final RestClient.Builder builder;
+    private final MeterRegistry registry;
+
+    @Value("${pagamento.pedido-client.verificar-pedido:false}")
+    private boolean verificarPedido;
+
+    @Value("${pagamento.pedido-client.url:http://localhost:8081}")
+    private String url;
+
+    @Value("${pagamento.pedido-client.connect-timeout:500ms}")
+    private Duration connectTimeout;
+
+    @Value("${pagamento.pedido-client.read-timeout:1s}")
+    private Duration readTimeout;
+
+    @Value("${pagamento.pedido-client.keep-alive:30s}")
+    private Duration keepAlive;
+
+    @Value("${pagamento.pedido-client.max-connections:20}")
+    private int maxConnections;
+
+    @Value("${pagamento.pedido-client.bulkhead.max-concurrent-calls:20}")
+    private int maxConcurrentCalls;
+
+    @Value("${pagamento.pedido-client.bulkhead.max-wait:0ms}")
+    private Duration maxWait;
+
+    @Value("${pagamento.pedido-client.circuit-breaker.sliding-window:20}")
+    private int slidingWindow;
+
+    @Value("${pagamento.pedido-client.circuit-breaker.minimum-calls:10}")
+    private int minimumCalls;
+
+    @Value("${pagamento.pedido-client.circuit-breaker.failure-rate:50}")
+    private float failureRate;
+
+    @Value("${pagamento.pedido-client.circuit-breaker.wait-in-open:10s}")
+    private Duration waitInOpen;
+
+    @Value("${pagamento.pedido-client.cache.ttl:2s}")
+    private Duration cacheTtl;
+
+    @Value("${pagamento.pedido-client.cache.maximum-size:10000}")
+    private long cacheMaximumSize;
+
+    private CloseableHttpClient httpClient;
+    private RestClient restClient;
+    private CircuitBreaker circuitBreaker;
+    private Bulkhead bulkhead;
+    private Cache<Long, CompletableFuture<String>> statusCache;
+
+    public PedidoClient(RestClient.Builder builder, MeterRegistry registry) {
+        this.builder = builder;
+        this.registry = registry;
+    }
+
+    @PostConstruct
+    void init() {
+        httpClient = HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(maxConnections)
+                        .setMaxConnPerRoute(maxConnections)
+                        .setDefaultConnectionConfig(ConnectionConfig.custom()
+                                .setConnectTimeout(Timeout.of(connectTimeout))
+                                .setSocketTimeout(Timeout.of(readTimeout))
+                                .build())
+                        .build())
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        // espera por uma conexão livre no pool também é limitada
+                        .setConnectionRequestTimeout(Timeout.of(connectTimeout))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> TimeValue.of(keepAlive))
+                .evictIdleConnections(TimeValue.of(keepAlive))
+                // sem retentativas escondidas - o tempo máximo de uma chamada é o read-timeout
+                .disableAutomaticRetries()
+                .build();
+        restClient = builder
+                .baseUrl(url)
+                .requestFactory(new HttpComponentsClientHttpRequestFactory(httpClient))
+                .build();
+
+        CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(slidingWindow)
+                .minimumNumberOfCalls(minimumCalls)
+                .failureRateThreshold(failureRate)
+                .waitDurationInOpenState(waitInOpen)
+                // 4xx (ex.: pedido inexistente) não indica falha do ms-pedido
+                .ignoreExceptions(HttpClientErrorException.class)
+                .build());
+        circuitBreaker = circuitBreakers.circuitBreaker("pedido");
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(registry);
+
+        BulkheadRegistry bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(maxWait)
+                .build());
+        bulkhead = bulkheads.bulkhead("pedido");
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(registry);
+
+        statusCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, statusCache, "pedido-status");
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        httpClient.close();
+    }
+
+    public boolean isVerificarPedido() {
+        return verificarPedido;
+    }
+
+    // desligado (pagamento.pedido-client.verificar-pedido=false) não consulta o ms-pedido
+    public void verificarPagavel(Long pedidoId) {
+        if (!verificarPedido) {
+            return;
+        }
+        String status = getStatus(pedidoId);
+        if (!STATUS_PAGAVEIS.contains(status)) {
+            throw new PedidoInvalidoException("Pedido não aceita pagamento. Id: "
+                    + pedidoId + " - status: " + status);
+        }
+    }
+
+    // chamadas simultâneas para o mesmo pedido compartilham uma única requisição;
+    // a chamada HTTP roda fora do lock do cache (compute), que prenderia a thread
+    // carregadora quando as requisições rodam em virtual threads
+    public String getStatus(Long pedidoId) {
+
+        CompletableFuture<String> status = new CompletableFuture<>();
+        CompletableFuture<String> existing = statusCache.asMap().putIfAbsent(pedidoId, status);
+        if (existing != null) {
+            return join(existing);
+        }
+        try {
+            status.complete(fetchStatus(pedidoId));
+        } catch (RuntimeException e) {
+            // falhas não ficam no cache - a próxima chamada tenta de novo
+            statusCache.asMap().remove(pedidoId, status);
+            status.completeExceptionally(e);
+        }
+        return join(status);
+    }
+
+    // entrega de um lote da outbox (POST /pedidos/status/bulk)
+    public void enviarEventos(List<PagamentoStatusEventoDTO> eventos) {
+        try {
+            call(() -> restClient.post()
+                    .uri("/pedidos/status/bulk")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(eventos)
+                    .retrieve()
+                    .toBodilessEntity());
+        } catch (CallNotPermittedException | BulkheadFullException | RestClientException e) {
+            throw new PedidoIndisponivelException("Falha ao enviar eventos ao ms-pedido", e);
+        }
+    }
+
+    private String fetchStatus(Long pedidoId) {
+        try {
+            return call(() -> restClient.get()
+                    .uri("/pedidos/{id}/status", pedidoId)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .retrieve()
+                    .body(PedidoStatusDTO.class)).getStatus();
+        } catch (HttpClientErrorException.NotFound e) {
+            throw new PedidoInvalidoException("Pedido não encontrado. Id: " + pedidoId);
+        } catch (CallNotPermittedException | BulkheadFullException | RestClientException e) {
+            throw new PedidoIndisponivelException("ms-pedido indisponível. Tente novamente mais tarde", e);
+        }
+    }
+
+    private static String join(CompletableFuture<String> status) {
+        try {
+            return status.join();
+        } catch (CompletionException e) {
+            throw (RuntimeException) e.getCause();
+        }
+    }
+
+    private <T> T call(Supplier<T> call) {
+        return Bulkhead.decorateSupplier(bulkhead, CircuitBreaker.decorateSupplier(circuitBreaker, call)).get();
+    }
+}
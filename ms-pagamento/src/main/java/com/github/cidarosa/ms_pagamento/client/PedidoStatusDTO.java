@@ -0,0 +1,14 @@
+package com.github.cidarosa.ms_pagamento.client;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+// resposta do GET /pedidos/{id}/status
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+public class PedidoStatusDTO {
+
+    private String status;
+}
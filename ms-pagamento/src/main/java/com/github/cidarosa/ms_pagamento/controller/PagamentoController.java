@@ -1,45 +1,145 @@
 package com.github.cidarosa.ms_pagamento.controller;
 
+import com.github.cidarosa.ms_pagamento.autorizacao.AutorizacaoQueue;
 import com.github.cidarosa.ms_pagamento.dto.PagamentoDTO;
+import com.github.cidarosa.ms_pagamento.dto.PagamentoStatusBulkDTO;
+import com.github.cidarosa.ms_pagamento.dto.PagamentoStatusBulkResultDTO;
+import com.github.cidarosa.ms_pagamento.dto.PagamentoStatusDTO;
+import com.github.cidarosa.ms_pagamento.dto.PagamentosDoPedidoDTO;
+import com.github.cidarosa.ms_pagamento.dto.ReceitaStatsDTO;
+import com.github.cidarosa.ms_pagamento.idempotency.IdempotencyStore;
+import com.github.cidarosa.ms_pagamento.idempotency.StoredResponse;
 import com.github.cidarosa.ms_pagamento.service.PagamentoService;
+import com.github.cidarosa.ms_pagamento.service.ReceitaService;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/pagamentos")
 public class PagamentoController {
 
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
     @Autowired
     private PagamentoService service;
 
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private ReceitaService receitaService;
+
+    @Autowired
+    private AutorizacaoQueue autorizacao;
+
     @GetMapping
-    public ResponseEntity<List<PagamentoDTO>> getAll() {
-        List<PagamentoDTO> dto = service.getAll();
+    public ResponseEntity<List<PagamentoDTO>> getAll(@RequestParam(required = false) Long pedidoId) {
+        // com pedidoId: só os pagamentos do pedido, pelo índice (pedido_id, status)
+        List<PagamentoDTO> dto = pedidoId == null ? service.getAll() : service.getByPedidoId(pedidoId);
         return ResponseEntity.ok(dto);
     }
 
+    // lote de pedidos (ex.: romaneio de entrega) - resolvido em chunks de IN, agrupado por pedido
+    @PostMapping("/by-pedidos")
+    public ResponseEntity<List<PagamentosDoPedidoDTO>> getByPedidoIds(@RequestBody List<Long> pedidoIds) {
+        return ResponseEntity.ok(service.getByPedidoIds(pedidoIds));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = out -> service.exportAll(out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // receita confirmada no período (padrão: últimos 30 dias), lida do rollup - não percorre tb_pagamento
+    @GetMapping("/stats")
+    public ResponseEntity<List<ReceitaStatsDTO>> stats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = ReceitaService.DIA + "," + ReceitaService.FORMA_DE_PAGAMENTO) List<String> groupBy) {
+        LocalDate fim = to == null ? LocalDate.now() : to;
+        LocalDate inicio = from == null ? fim.minusDays(30) : from;
+        return ResponseEntity.ok(receitaService.getStats(inicio, fim, groupBy));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<PagamentoDTO> getById(@PathVariable Long id) {
+    public ResponseEntity<PagamentoDTO> getById(@PathVariable Long id, WebRequest request) {
+        // If-None-Match: compara só a versão, sem carregar o pagamento
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            String eTag = eTag(service.getVersion(id));
+            if (request.checkNotModified(eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+        }
         PagamentoDTO dto = service.getById(id);
-        return ResponseEntity.ok(dto);
+        return ResponseEntity.ok().eTag(eTag(dto.getVersion())).body(dto);
+    }
+
+    // status da autorização; wait (segundos) > 0 faz long-poll enquanto ela estiver pendente
+    @GetMapping("/{id}/status")
+    public CompletableFuture<ResponseEntity<PagamentoStatusDTO>> getStatus(@PathVariable Long id,
+                                                                           @RequestParam(defaultValue = "0") long wait) {
+        return autorizacao.aguardar(id, Duration.ofSeconds(wait)).thenApply(ResponseEntity::ok);
     }
 
     @PostMapping
-    public ResponseEntity<PagamentoDTO> create(@RequestBody @Valid PagamentoDTO dto) {
-        dto = service.createPagamento(dto);
+    public ResponseEntity<?> create(@RequestBody @Valid PagamentoDTO dto,
+                                    @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        if (autorizacao.isEnabled()) {
+            return createAsync(dto, idempotencyKey);
+        }
+        if (idempotencyKey == null) {
+            PagamentoDTO created = service.createPagamento(dto);
+            return ResponseEntity.created(createdUri(created)).body(created);
+        }
 
-        URI uri = ServletUriComponentsBuilder
-                .fromCurrentRequestUri()
-                .path("/{id}")
-                .buildAndExpand(dto.getId())
-                .toUri();
-        return ResponseEntity.created(uri).body(dto);
+        // retentativas com a mesma chave recebem o 201 original, sem gravar outro pagamento
+        StoredResponse response = idempotencyStore.execute(idempotencyKey, dto,
+                () -> service.createPagamento(dto), this::createdUri);
+        return ResponseEntity.created(response.getLocation())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(IDEMPOTENT_REPLAYED, String.valueOf(response.isReplayed()))
+                .body(response.getBody());
+    }
+
+    // modo assíncrono: 202 com o pagamento CRIADO e Location para GET /pagamentos/{id}/status
+    private ResponseEntity<?> createAsync(PagamentoDTO dto, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            PagamentoDTO created = autorizacao.submeter(dto);
+            return ResponseEntity.accepted().location(statusUri(created)).body(created);
+        }
+
+        StoredResponse response = idempotencyStore.execute(idempotencyKey, dto,
+                () -> autorizacao.submeter(dto), this::statusUri);
+        return ResponseEntity.accepted()
+                .location(response.getLocation())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(IDEMPOTENT_REPLAYED, String.valueOf(response.isReplayed()))
+                .body(response.getBody());
+    }
+
+    // liquidação em massa (CONFIRMADO/CANCELADO) - devolve os ids alterados, os rejeitados e os que falharam
+    @PatchMapping("/status")
+    public ResponseEntity<PagamentoStatusBulkResultDTO> updateStatus(@RequestBody @Valid PagamentoStatusBulkDTO dto) {
+        return ResponseEntity.ok(service.updateStatus(dto.getIds(), dto.getStatus()));
     }
 
     @PutMapping("/{id}")
@@ -55,4 +155,25 @@ public class PagamentoController {
         return ResponseEntity.noContent().build();
     }
 
+    private URI createdUri(PagamentoDTO dto) {
+        return ServletUriComponentsBuilder
+                .fromCurrentRequestUri()
+                .path("/{id}")
+                .buildAndExpand(dto.getId())
+                .toUri();
+    }
+
+    private URI statusUri(PagamentoDTO dto) {
+        return ServletUriComponentsBuilder
+                .fromCurrentRequestUri()
+                .path("/{id}/status")
+                .buildAndExpand(dto.getId())
+                .toUri();
+    }
+
+    // ETag forte a partir da coluna version
+    private static String eTag(Long version) {
+        return "\"" + version + "\"";
+    }
+
 }
@@ -3,10 +3,18 @@ package com.github.cidarosa.ms_pagamento.controller.handlers;
 
 import com.github.cidarosa.ms_pagamento.controller.handlers.dto.CustomErrorDTO;
 import com.github.cidarosa.ms_pagamento.controller.handlers.dto.ValidationErrorDTO;
+import com.github.cidarosa.ms_pagamento.service.exceptions.AutorizacaoSaturadaException;
+import com.github.cidarosa.ms_pagamento.service.exceptions.IdempotencyKeyInProgressException;
+import com.github.cidarosa.ms_pagamento.service.exceptions.IdempotencyKeyMismatchException;
+import com.github.cidarosa.ms_pagamento.service.exceptions.ParametroInvalidoException;
+import com.github.cidarosa.ms_pagamento.service.exceptions.PedidoIndisponivelException;
+import com.github.cidarosa.ms_pagamento.service.exceptions.PedidoInvalidoException;
 import com.github.cidarosa.ms_pagamento.service.exceptions.ResourceNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -26,6 +34,71 @@ public class ControllerExceptionHandler {
         return ResponseEntity.status(status).body(err);
     }
 
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public ResponseEntity<CustomErrorDTO> handleIdempotencyKeyMismatch(IdempotencyKeyMismatchException e,
+                                                                       HttpServletRequest request) {
+        HttpStatus status = HttpStatus.UNPROCESSABLE_ENTITY; //422
+        CustomErrorDTO err = new CustomErrorDTO(Instant.now(), status.value(),
+                e.getMessage(), request.getRequestURI());
+        return ResponseEntity.status(status).body(err);
+    }
+
+    @ExceptionHandler(IdempotencyKeyInProgressException.class)
+    public ResponseEntity<CustomErrorDTO> handleIdempotencyKeyInProgress(IdempotencyKeyInProgressException e,
+                                                                         HttpServletRequest request) {
+        HttpStatus status = HttpStatus.CONFLICT; //409
+        CustomErrorDTO err = new CustomErrorDTO(Instant.now(), status.value(),
+                e.getMessage(), request.getRequestURI());
+        return ResponseEntity.status(status).body(err);
+    }
+
+    @ExceptionHandler(PedidoInvalidoException.class)
+    public ResponseEntity<CustomErrorDTO> handlePedidoInvalido(PedidoInvalidoException e,
+                                                               HttpServletRequest request) {
+        HttpStatus status = HttpStatus.UNPROCESSABLE_ENTITY; //422
+        CustomErrorDTO err = new CustomErrorDTO(Instant.now(), status.value(),
+                e.getMessage(), request.getRequestURI());
+        return ResponseEntity.status(status).body(err);
+    }
+
+    @ExceptionHandler(PedidoIndisponivelException.class)
+    public ResponseEntity<CustomErrorDTO> handlePedidoIndisponivel(PedidoIndisponivelException e,
+                                                                   HttpServletRequest request) {
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE; //503
+        CustomErrorDTO err = new CustomErrorDTO(Instant.now(), status.value(),
+                e.getMessage(), request.getRequestURI());
+        return ResponseEntity.status(status).body(err);
+    }
+
+    @ExceptionHandler(AutorizacaoSaturadaException.class)
+    public ResponseEntity<CustomErrorDTO> handleAutorizacaoSaturada(AutorizacaoSaturadaException e,
+                                                                    HttpServletRequest request) {
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE; //503
+        CustomErrorDTO err = new CustomErrorDTO(Instant.now(), status.value(),
+                e.getMessage(), request.getRequestURI());
+        // nada foi gravado - o cliente pode repetir o POST
+        return ResponseEntity.status(status).header(HttpHeaders.RETRY_AFTER, "1").body(err);
+    }
+
+    @ExceptionHandler(ParametroInvalidoException.class)
+    public ResponseEntity<CustomErrorDTO> handleParametroInvalido(ParametroInvalidoException e,
+                                                                  HttpServletRequest request) {
+        HttpStatus status = HttpStatus.BAD_REQUEST; //400
+        CustomErrorDTO err = new CustomErrorDTO(Instant.now(), status.value(),
+                e.getMessage(), request.getRequestURI());
+        return ResponseEntity.status(status).body(err);
+    }
+
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<CustomErrorDTO> handleCannotCreateTransaction(CannotCreateTransactionException e,
+                                                                        HttpServletRequest request) {
+        // pool de conexões esgotado (connection-timeout) - o cliente pode tentar de novo
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE; //503
+        CustomErrorDTO err = new CustomErrorDTO(Instant.now(), status.value(),
+                "Serviço sobrecarregado. Tente novamente mais tarde", request.getRequestURI());
+        return ResponseEntity.status(status).body(err);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<CustomErrorDTO> methodArgumentNotValidation(MethodArgumentNotValidException e,
                                                                       HttpServletRequest request) {
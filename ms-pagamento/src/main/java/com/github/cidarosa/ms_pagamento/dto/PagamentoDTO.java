@@ -1,5 +1,6 @@
 package com.github.cidarosa.ms_pagamento.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.github.cidarosa.ms_pagamento.entity.Pagamento;
 import com.github.cidarosa.ms_pagamento.entity.Status;
 import jakarta.persistence.EnumType;
@@ -44,6 +45,10 @@ public class PagamentoDTO {
     @NotNull(message = "A forma de pagamento é requerida")
     private Long formaDePagamentoId;
 
+    // só para o ETag - não faz parte do JSON
+    @JsonIgnore
+    private Long version;
+
     public PagamentoDTO(Pagamento entity) {
         id = entity.getId();
         valor = entity.getValor();
@@ -54,5 +59,6 @@ public class PagamentoDTO {
         status = entity.getStatus();
         pedidoId = entity.getPedidoId();
         formaDePagamentoId = entity.getFormaDePagamentoId();
+        version = entity.getVersion();
     }
 }
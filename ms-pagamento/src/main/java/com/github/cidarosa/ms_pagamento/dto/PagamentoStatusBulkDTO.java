@@ -0,0 +1,28 @@
+package com.github.cidarosa.ms_pagamento.dto;
+
+import com.github.cidarosa.ms_pagamento.entity.Status;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// PATCH /pagamentos/status - mesmo status de destino para todos os ids
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+public class PagamentoStatusBulkDTO {
+
+    public static final int MAX_IDS = 10000;
+
+    @NotEmpty(message = "Informe ao menos um id")
+    @Size(max = MAX_IDS, message = "Máximo de " + MAX_IDS + " ids por requisição")
+    private List<@NotNull(message = "Id não pode ser nulo") Long> ids = new ArrayList<>();
+
+    @NotNull(message = "O status é requerido")
+    private Status status;
+}
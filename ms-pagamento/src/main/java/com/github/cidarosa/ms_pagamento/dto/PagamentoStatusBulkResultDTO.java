@@ -0,0 +1,20 @@
+package com.github.cidarosa.ms_pagamento.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// rejeitados: inexistentes ou fora de um status de origem permitido;
+// falhas: chunk desfeito por erro no banco - nada foi alterado, podem ser reenviados
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+public class PagamentoStatusBulkResultDTO {
+
+    private List<Long> alterados = new ArrayList<>();
+    private List<Long> rejeitados = new ArrayList<>();
+    private List<Long> falhas = new ArrayList<>();
+}
@@ -0,0 +1,17 @@
+package com.github.cidarosa.ms_pagamento.dto;
+
+import com.github.cidarosa.ms_pagamento.entity.Status;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+// GET /pagamentos/{id}/status - pendente: autorização assíncrona ainda em andamento
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+public class PagamentoStatusDTO {
+
+    private Long id;
+    private Status status;
+    private boolean pendente;
+}
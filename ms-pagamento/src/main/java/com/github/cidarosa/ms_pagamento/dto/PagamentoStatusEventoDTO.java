@@ -0,0 +1,32 @@
+package com.github.cidarosa.ms_pagamento.dto;
+
+import com.github.cidarosa.ms_pagamento.entity.OutboxEvento;
+import com.github.cidarosa.ms_pagamento.entity.Status;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+// contrato do POST /pedidos/status/bulk do ms-pedido
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+public class PagamentoStatusEventoDTO {
+
+    @NotNull(message = "Campo obrigatório")
+    private UUID eventoId;
+    private Long pagamentoId;
+    @NotNull(message = "Campo obrigatório")
+    private Long pedidoId;
+    @NotNull(message = "Campo obrigatório")
+    private Status status;
+
+    public PagamentoStatusEventoDTO(OutboxEvento entity) {
+        eventoId = entity.getEventoId();
+        pagamentoId = entity.getPagamentoId();
+        pedidoId = entity.getPedidoId();
+        status = entity.getStatus();
+    }
+}
@@ -0,0 +1,18 @@
+package com.github.cidarosa.ms_pagamento.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// pagamentos de um pedido no POST /pagamentos/by-pedidos - lista vazia quando o pedido não tem pagamentos
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+public class PagamentosDoPedidoDTO {
+
+    private Long pedidoId;
+    private List<PagamentoDTO> pagamentos = new ArrayList<>();
+}
@@ -0,0 +1,22 @@
+package com.github.cidarosa.ms_pagamento.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// uma linha de GET /pagamentos/stats - dia e formaDePagamentoId só aparecem quando fazem parte do groupBy
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ReceitaStatsDTO {
+
+    private LocalDate dia;
+    private Long formaDePagamentoId;
+    private Long quantidade;
+    private BigDecimal valorTotal;
+}
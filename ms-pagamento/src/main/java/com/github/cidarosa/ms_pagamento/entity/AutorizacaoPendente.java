@@ -0,0 +1,33 @@
+package com.github.cidarosa.ms_pagamento.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+// autorização assíncrona ainda sem resultado gravado - nasce na mesma transação do pagamento CRIADO
+// e é apagada quando o resultado é gravado; vencida (proximaTentativa), é reenviada pela AutorizacaoQueue
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode(of = "pagamentoId")
+
+@Entity
+@Table(name = "tb_autorizacao_pendente", indexes = {
+        @Index(name = "idx_autorizacao_proxima_tentativa", columnList = "proxima_tentativa")
+})
+public class AutorizacaoPendente {
+
+    @Id
+    private Long pagamentoId;
+    @Column(nullable = false)
+    private Instant proximaTentativa; // até lá a autorização pertence a quem a enfileirou
+    @Column(nullable = false)
+    private int tentativas;           // reenvios feitos
+
+}
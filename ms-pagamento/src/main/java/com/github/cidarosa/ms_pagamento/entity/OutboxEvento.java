@@ -0,0 +1,39 @@
+package com.github.cidarosa.ms_pagamento.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// mudança de status do pagamento, gravada na mesma transação e enviada depois ao ms-pedido
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode(of = "id")
+
+@Entity
+@Table(name = "tb_outbox_evento")
+public class OutboxEvento {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;                  // ordem de envio - reinicia junto com o banco
+    @Column(nullable = false, unique = true)
+    private UUID eventoId;            // id de deduplicação no ms-pedido - gerado ao gravar o evento
+    @Column(nullable = false)
+    private Long pagamentoId;
+    @Column(nullable = false)
+    private Long pedidoId;
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Status status;
+    @Column(nullable = false)
+    private Instant criadoEm;
+
+}
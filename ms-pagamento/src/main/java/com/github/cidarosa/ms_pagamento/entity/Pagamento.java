@@ -6,8 +6,11 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 
 @AllArgsConstructor
 @NoArgsConstructor
@@ -16,7 +19,13 @@ import java.math.BigDecimal;
 @EqualsAndHashCode(of = "id")
 
 @Entity
-@Table(name = "tb_pagamento")
+// consultas por pedido (GET /pagamentos?pedidoId=, POST /pagamentos/by-pedidos), com ou sem status
+@Table(name = "tb_pagamento", indexes = {
+        @Index(name = "idx_pagamento_pedido_status", columnList = "pedido_id, status")
+})
+// cache de 2º nível (região em pagamento-cache.conf): lido muitas vezes depois de CONFIRMADO/CANCELADO;
+// READ_WRITE - PUT e mudanças de status alteram a linha, leitores nunca veem versão antiga
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "pagamento")
 public class Pagamento {
 
     @Id
@@ -35,5 +44,10 @@ public class Pagamento {
     private Long pedidoId;
     @Column(nullable = false)
     private Long formaDePagamentoId;  // 1 - dinheiro | 2 - cartão | 3 - pix
+    @Column(nullable = false)
+    private LocalDate data;           // dia do pagamento - base da receita diária
+    // incrementada a cada alteração - base do ETag
+    @Version
+    private Long version;
 
 }
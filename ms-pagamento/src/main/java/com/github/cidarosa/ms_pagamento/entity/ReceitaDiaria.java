@@ -0,0 +1,34 @@
+package com.github.cidarosa.ms_pagamento.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// rollup da receita confirmada por dia e forma de pagamento - mantido a cada gravação de Pagamento
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode(of = {"dia", "formaDePagamentoId"})
+
+@Entity
+@Table(name = "tb_receita_diaria")
+@IdClass(ReceitaDiariaId.class)
+public class ReceitaDiaria {
+
+    @Id
+    private LocalDate dia;
+    @Id
+    private Long formaDePagamentoId;
+    @Column(nullable = false)
+    private Long quantidade;          // pagamentos CONFIRMADO
+    @Column(nullable = false)
+    private BigDecimal valor;         // soma de Pagamento.valor
+
+}
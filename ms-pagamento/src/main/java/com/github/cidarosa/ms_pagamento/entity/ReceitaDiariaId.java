@@ -0,0 +1,22 @@
+package com.github.cidarosa.ms_pagamento.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+public class ReceitaDiariaId implements Serializable {
+
+    private LocalDate dia;
+    private Long formaDePagamentoId;
+
+}
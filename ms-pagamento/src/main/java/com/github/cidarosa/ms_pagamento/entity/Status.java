@@ -1,7 +1,26 @@
 package com.github.cidarosa.ms_pagamento.entity;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum Status {
     CRIADO,
     CONFIRMADO,
-    CANCELADO
+    CANCELADO;
+
+    // status -> status de onde se pode chegar nele (CONFIRMADO -> CANCELADO é o estorno)
+    private static final Map<Status, Set<Status>> ORIGENS = new EnumMap<>(Status.class);
+
+    static {
+        ORIGENS.put(CRIADO, Collections.unmodifiableSet(EnumSet.noneOf(Status.class)));
+        ORIGENS.put(CONFIRMADO, Collections.unmodifiableSet(EnumSet.of(CRIADO)));
+        ORIGENS.put(CANCELADO, Collections.unmodifiableSet(EnumSet.of(CRIADO, CONFIRMADO)));
+    }
+
+    public Set<Status> getOrigens() {
+        return ORIGENS.get(this);
+    }
 }
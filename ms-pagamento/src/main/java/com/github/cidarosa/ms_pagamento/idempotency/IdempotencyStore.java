@@ -0,0 +1,143 @@
+package com.github.cidarosa.ms_pagamento.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.cidarosa.ms_pagamento.service.exceptions.IdempotencyKeyInProgressException;
+import com.github.cidarosa.ms_pagamento.service.exceptions.IdempotencyKeyMismatchException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// chaves Idempotency-Key em memória. Respostas gravadas: tamanho máximo e expiração limitam o consumo.
+// Em andamento: mapa à parte, sem limite nem despejo - uma chave em execução nunca é esquecida
+// (a repetição rodaria a ação de novo); limitado na prática pelas requisições simultâneas
+@Component
+public class IdempotencyStore {
+
+    private final Map<String, Entry> emAndamento = new ConcurrentHashMap<>();
+    private final Cache<String, Concluida> concluidas;
+    private final ObjectMapper objectMapper;
+    private final Duration waitTimeout;
+
+    public IdempotencyStore(ObjectMapper objectMapper, MeterRegistry registry,
+                            @Value("${pagamento.idempotency.maximum-size:10000}") long maximumSize,
+                            @Value("${pagamento.idempotency.ttl:24h}") Duration ttl,
+                            @Value("${pagamento.idempotency.wait-timeout:10s}") Duration waitTimeout) {
+        this.objectMapper = objectMapper;
+        this.waitTimeout = waitTimeout;
+        this.concluidas = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, concluidas, "idempotency");
+        Gauge.builder("pagamento.idempotency.em-andamento", emAndamento, Map::size)
+                .description("Chaves Idempotency-Key com a requisição original ainda em execução")
+                .register(registry);
+    }
+
+    // executa a ação uma única vez por chave; repetições - inclusive as concorrentes,
+    // que esperam a primeira terminar - recebem a resposta gravada
+    public <T> StoredResponse execute(String key, Object request, Supplier<T> action,
+                                      Function<T, URI> location) {
+
+        String requestHash = hash(request);
+
+        while (true) {
+            Concluida concluida = concluidas.getIfPresent(key);
+            if (concluida != null) {
+                checkHash(key, concluida.requestHash(), requestHash);
+                return concluida.response().replay();
+            }
+
+            Entry entry = new Entry(requestHash, new CompletableFuture<>());
+            Entry existing = emAndamento.putIfAbsent(key, entry);
+
+            if (existing == null) {
+                if (concluidas.getIfPresent(key) != null) {
+                    // a original terminou entre a consulta acima e o putIfAbsent - refaz com a resposta gravada
+                    emAndamento.remove(key, entry);
+                    entry.response().completeExceptionally(new IllegalStateException("Requisição já concluída"));
+                    continue;
+                }
+                try {
+                    T result = action.get();
+                    StoredResponse response = new StoredResponse(location.apply(result), write(result), false);
+                    // gravada antes de sair de emAndamento - a chave nunca fica sem nenhum dos dois
+                    concluidas.put(key, new Concluida(requestHash, response));
+                    emAndamento.remove(key, entry);
+                    entry.response().complete(response);
+                    return response;
+                } catch (RuntimeException e) {
+                    // falhou - libera a chave para uma nova tentativa
+                    emAndamento.remove(key, entry);
+                    entry.response().completeExceptionally(e);
+                    throw e;
+                }
+            }
+
+            checkHash(key, existing.requestHash(), requestHash);
+
+            try {
+                return existing.response().get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS).replay();
+            } catch (ExecutionException e) {
+                // a requisição original falhou - esta tenta de novo
+            } catch (TimeoutException e) {
+                throw new IdempotencyKeyInProgressException(
+                        "Requisição com a mesma Idempotency-Key ainda em processamento: " + key);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IdempotencyKeyInProgressException(
+                        "Requisição com a mesma Idempotency-Key ainda em processamento: " + key);
+            }
+        }
+    }
+
+    private static void checkHash(String key, String gravado, String requestHash) {
+        if (!gravado.equals(requestHash)) {
+            throw new IdempotencyKeyMismatchException(
+                    "Idempotency-Key já utilizada com outra requisição: " + key);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Não foi possível calcular o hash da requisição", e);
+        }
+    }
+
+    private String write(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Não foi possível serializar a resposta", e);
+        }
+    }
+
+    private record Entry(String requestHash, CompletableFuture<StoredResponse> response) {
+    }
+
+    private record Concluida(String requestHash, StoredResponse response) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.github.cidarosa.ms_pagamento.idempotency;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.net.URI;
+
+// resposta original já serializada - reenviada sem tocar no banco
+@AllArgsConstructor
+@Getter
+public class StoredResponse {
+
+    private URI location;
+    private String body;
+    private boolean replayed;
+
+    public StoredResponse replay() {
+        return new StoredResponse(location, body, true);
+    }
+}
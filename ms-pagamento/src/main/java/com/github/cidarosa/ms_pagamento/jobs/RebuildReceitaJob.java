@@ -0,0 +1,35 @@
+package com.github.cidarosa.ms_pagamento.jobs;
+
+import com.github.cidarosa.ms_pagamento.service.ReceitaService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+// recalcula tb_receita_diaria a partir de tb_pagamento na subida da aplicação;
+// ligar com pagamento.receita.rebuild.enabled=true (ex.: após carga manual de dados ou correção do rollup)
+@Component
+public class RebuildReceitaJob implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(RebuildReceitaJob.class);
+
+    @Autowired
+    private ReceitaService service;
+
+    @Value("${pagamento.receita.rebuild.enabled:false}")
+    private boolean enabled;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        int linhas = service.reconstruir();
+        logger.info("Rollup de receita reconstruído: {} linhas em {} ms", linhas,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+}
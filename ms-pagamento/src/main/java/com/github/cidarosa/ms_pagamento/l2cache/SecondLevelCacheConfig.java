@@ -0,0 +1,35 @@
+package com.github.cidarosa.ms_pagamento.l2cache;
+
+import com.github.benmanes.caffeine.jcache.CacheManagerImpl;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.Properties;
+
+// cache de 2º nível do Hibernate em Caffeine (JCache). Cada SessionFactory recebe o seu próprio
+// CacheManager: o Caching.getCachingProvider().getCacheManager() é único por JVM e seria dividido por
+// contextos com bancos diferentes (testes, loadtest). Fechado pelo Hibernate junto com a SessionFactory.
+// Sem esta configuração (ex.: @DataJpaTest) o Hibernate usa o CacheManager padrão com o mesmo arquivo.
+// Só a região "pagamento" (entidade Pagamento); limites no arquivo de hibernate.javax.cache.uri
+@Configuration
+@ConditionalOnProperty(name = "spring.jpa.properties.hibernate.cache.use_second_level_cache", havingValue = "true")
+public class SecondLevelCacheConfig {
+
+    // recurso do classpath - mesmo valor que o Hibernate resolve quando cria o CacheManager sozinho
+    @Value("${spring.jpa.properties.hibernate.javax.cache.uri}")
+    private String config;
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheManager() {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, new CacheManagerImpl(
+                Caching.getCachingProvider(CaffeineCachingProvider.class.getName()), false,
+                URI.create("classpath:" + config), getClass().getClassLoader(), new Properties()));
+    }
+}
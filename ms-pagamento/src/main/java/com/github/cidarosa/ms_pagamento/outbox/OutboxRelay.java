@@ -0,0 +1,67 @@
+package com.github.cidarosa.ms_pagamento.outbox;
+
+import com.github.cidarosa.ms_pagamento.client.PedidoClient;
+import com.github.cidarosa.ms_pagamento.dto.PagamentoStatusEventoDTO;
+import com.github.cidarosa.ms_pagamento.entity.OutboxEvento;
+import com.github.cidarosa.ms_pagamento.repository.OutboxEventoRepository;
+import com.github.cidarosa.ms_pagamento.service.exceptions.PedidoIndisponivelException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// drena a outbox em lotes ordenados para o ms-pedido - entrega at-least-once:
+// o lote só é apagado depois do 2xx; se cair antes disso, é reenviado e o ms-pedido deduplica
+@Component
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    @Autowired
+    private OutboxEventoRepository repository;
+
+    @Autowired
+    private PedidoClient pedidoClient;
+
+    @Value("${pagamento.outbox.relay.enabled:false}")
+    private boolean enabled;
+
+    @Value("${pagamento.outbox.relay.batch-size:100}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${pagamento.outbox.relay.interval:1s}")
+    public void scheduledRelay() {
+        if (enabled) {
+            relay();
+        }
+    }
+
+    // envia lotes até esvaziar a outbox ou o ms-pedido falhar; retorna quantos eventos foram entregues
+    public int relay() {
+
+        int entregues = 0;
+        while (true) {
+            List<OutboxEvento> lote = repository.findNextBatch(PageRequest.of(0, batchSize));
+            if (lote.isEmpty()) {
+                return entregues;
+            }
+            try {
+                pedidoClient.enviarEventos(lote.stream().map(PagamentoStatusEventoDTO::new).toList());
+            } catch (PedidoIndisponivelException e) {
+                // mantém o lote - nova tentativa no próximo ciclo, na mesma ordem
+                logger.warn("Falha ao enviar {} eventos da outbox: {}", lote.size(), e.getCause().getMessage());
+                return entregues;
+            }
+            repository.deleteAllByIdInBatch(lote.stream().map(OutboxEvento::getId).toList());
+            entregues += lote.size();
+            if (lote.size() < batchSize) {
+                return entregues;
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.cidarosa.ms_pagamento.reactive;
+
+import com.github.cidarosa.ms_pagamento.controller.handlers.dto.CustomErrorDTO;
+import com.github.cidarosa.ms_pagamento.dto.PagamentoDTO;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+
+// GET /pagamentos/{id} e GET /pagamentos (lista em streaming) - mesmo JSON do PagamentoController
+public class ReactivePagamentoHandler {
+
+    private final ReactivePagamentoRepository repository;
+
+    public ReactivePagamentoHandler(ReactivePagamentoRepository repository) {
+        this.repository = repository;
+    }
+
+    public RouterFunction<ServerResponse> routes() {
+        return RouterFunctions.route(GET("/pagamentos/{id}"), this::getById)
+                .andRoute(GET("/pagamentos"), this::getAll);
+    }
+
+    private Mono<ServerResponse> getById(ServerRequest request) {
+        Long id;
+        try {
+            id = Long.valueOf(request.pathVariable("id"));
+        } catch (NumberFormatException e) {
+            return error(request, HttpStatus.BAD_REQUEST, "Id inválido: " + request.pathVariable("id"));
+        }
+        // If-None-Match: compara só a versão, sem ler o pagamento - como o PagamentoController
+        Mono<ServerResponse> response = request.headers().firstHeader(HttpHeaders.IF_NONE_MATCH) == null
+                ? findById(id)
+                : repository.findVersionById(id)
+                        .flatMap(version -> request.checkNotModified(eTag(version))
+                                .switchIfEmpty(Mono.defer(() -> findById(id))));
+        return response.switchIfEmpty(Mono.defer(() ->
+                error(request, HttpStatus.NOT_FOUND, "Recurso não encontrado. ID: " + id)));
+    }
+
+    private Mono<ServerResponse> findById(Long id) {
+        return repository.findById(id)
+                .flatMap(dto -> ServerResponse.ok()
+                        .eTag(eTag(dto.getVersion()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(dto));
+    }
+
+    // Accept: application/x-ndjson - um pagamento por linha; senão um array JSON, também escrito em streaming
+    private Mono<ServerResponse> getAll(ServerRequest request) {
+        Long pedidoId;
+        try {
+            pedidoId = request.queryParam("pedidoId").map(Long::valueOf).orElse(null);
+        } catch (NumberFormatException e) {
+            return error(request, HttpStatus.BAD_REQUEST, "pedidoId inválido");
+        }
+        Flux<PagamentoDTO> pagamentos = pedidoId == null
+                ? repository.findAll()
+                : repository.findByPedidoId(pedidoId);
+        MediaType mediaType = request.headers().accept().contains(MediaType.APPLICATION_NDJSON)
+                ? MediaType.APPLICATION_NDJSON
+                : MediaType.APPLICATION_JSON;
+        return ServerResponse.ok()
+                .contentType(mediaType)
+                .body(pagamentos, PagamentoDTO.class);
+    }
+
+    // ETag forte a partir da coluna version
+    private static String eTag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    private static Mono<ServerResponse> error(ServerRequest request, HttpStatus status, String message) {
+        CustomErrorDTO err = new CustomErrorDTO(Instant.now(), status.value(), message, request.path());
+        return ServerResponse.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(err);
+    }
+}
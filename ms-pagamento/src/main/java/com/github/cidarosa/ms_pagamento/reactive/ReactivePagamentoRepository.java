@@ -0,0 +1,66 @@
+package com.github.cidarosa.ms_pagamento.reactive;
+
+import com.github.cidarosa.ms_pagamento.dto.PagamentoDTO;
+import com.github.cidarosa.ms_pagamento.entity.Status;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+// leituras de tb_pagamento por R2DBC - mapeia direto para PagamentoDTO, sem entidade JPA
+public class ReactivePagamentoRepository {
+
+    private static final String COLUNAS = "SELECT id, valor, nome, numero_do_cartao, validade, codigo_de_seguranca,"
+            + " status, pedido_id, forma_de_pagamento_id, version FROM tb_pagamento";
+
+    private final DatabaseClient client;
+
+    public ReactivePagamentoRepository(DatabaseClient client) {
+        this.client = client;
+    }
+
+    public Mono<PagamentoDTO> findById(Long id) {
+        return client.sql(COLUNAS + " WHERE id = :id")
+                .bind("id", id)
+                .map(ReactivePagamentoRepository::toDTO)
+                .one();
+    }
+
+    // só a versão, para o If-None-Match - não lê o pagamento
+    public Mono<Long> findVersionById(Long id) {
+        return client.sql("SELECT version FROM tb_pagamento WHERE id = :id")
+                .bind("id", id)
+                .map(row -> row.get("version", Long.class))
+                .one();
+    }
+
+    // linhas emitidas conforme são lidas - a resposta é escrita sem montar a lista em memória
+    public Flux<PagamentoDTO> findAll() {
+        return client.sql(COLUNAS + " ORDER BY id")
+                .map(ReactivePagamentoRepository::toDTO)
+                .all();
+    }
+
+    public Flux<PagamentoDTO> findByPedidoId(Long pedidoId) {
+        return client.sql(COLUNAS + " WHERE pedido_id = :pedidoId ORDER BY id")
+                .bind("pedidoId", pedidoId)
+                .map(ReactivePagamentoRepository::toDTO)
+                .all();
+    }
+
+    private static PagamentoDTO toDTO(Readable row) {
+        return new PagamentoDTO(
+                row.get("id", Long.class),
+                row.get("valor", BigDecimal.class),
+                row.get("nome", String.class),
+                row.get("numero_do_cartao", String.class),
+                row.get("validade", String.class),
+                row.get("codigo_de_seguranca", String.class),
+                Status.valueOf(row.get("status", String.class)),
+                row.get("pedido_id", Long.class),
+                row.get("forma_de_pagamento_id", Long.class),
+                row.get("version", Long.class));
+    }
+}
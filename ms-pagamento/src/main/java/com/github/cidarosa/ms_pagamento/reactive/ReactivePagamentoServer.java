@@ -0,0 +1,93 @@
+package com.github.cidarosa.ms_pagamento.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.h2.H2ConnectionConfiguration;
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+// caminho de leitura não bloqueante, em uma porta própria (Reactor Netty): GET /pagamentos/{id}
+// e GET /pagamentos por R2DBC no mesmo banco H2 do JPA. Escritas continuam no PagamentoController (Tomcat)
+@Component
+@ConditionalOnProperty(name = "pagamento.reactive.enabled", havingValue = "true")
+public class ReactivePagamentoServer {
+
+    private static final String H2_PREFIX = "jdbc:h2:";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${spring.datasource.url}")
+    private String datasourceUrl;
+
+    @Value("${spring.datasource.username:sa}")
+    private String username;
+
+    @Value("${spring.datasource.password:}")
+    private String password;
+
+    @Value("${pagamento.reactive.port:8082}")
+    private int port;
+
+    @Value("${pagamento.reactive.pool-size:20}")
+    private int poolSize;
+
+    private ConnectionPool pool;
+    private DisposableServer server;
+
+    @PostConstruct
+    void start() {
+        if (!datasourceUrl.startsWith(H2_PREFIX)) {
+            throw new IllegalStateException("pagamento.reactive requer H2 - spring.datasource.url: " + datasourceUrl);
+        }
+        // mesma URL do JDBC, sem o prefixo: o banco em memória é compartilhado dentro do processo
+        H2ConnectionFactory connectionFactory = new H2ConnectionFactory(H2ConnectionConfiguration.builder()
+                .url(datasourceUrl.substring(H2_PREFIX.length()))
+                .username(username)
+                .password(password)
+                .build());
+        pool = new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .initialSize(poolSize)
+                .maxSize(poolSize)
+                .build());
+
+        ReactivePagamentoHandler handler = new ReactivePagamentoHandler(
+                new ReactivePagamentoRepository(DatabaseClient.create(pool)));
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+
+        server = HttpServer.create()
+                .port(port)
+                .handle(new ReactorHttpHandlerAdapter(RouterFunctions.toHttpHandler(handler.routes(), strategies)))
+                .bindNow();
+    }
+
+    @PreDestroy
+    void stop() {
+        server.disposeNow();
+        pool.dispose();
+    }
+
+    // porta efetiva (pagamento.reactive.port=0 escolhe uma livre)
+    public int getPort() {
+        return server.port();
+    }
+}
@@ -0,0 +1,19 @@
+package com.github.cidarosa.ms_pagamento.repository;
+
+import com.github.cidarosa.ms_pagamento.entity.AutorizacaoPendente;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface AutorizacaoPendenteRepository extends JpaRepository<AutorizacaoPendente, Long> {
+
+    // vencidas mais antigas primeiro, travadas até o commit - duas instâncias não reservam a mesma
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM AutorizacaoPendente a WHERE a.proximaTentativa <= :agora ORDER BY a.proximaTentativa")
+    List<AutorizacaoPendente> findVencidas(Instant agora, Pageable pageable);
+}
@@ -0,0 +1,32 @@
+package com.github.cidarosa.ms_pagamento.repository;
+
+import com.github.cidarosa.ms_pagamento.entity.OutboxEvento;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventoRepository extends JpaRepository<OutboxEvento, Long> {
+
+    // lote mais antigo primeiro - mantém a ordem das mudanças de status
+    @Query("SELECT e FROM OutboxEvento e ORDER BY e.id")
+    List<OutboxEvento> findNextBatch(Pageable pageable);
+
+    // um evento por pagamento alterado em massa, gravado com um único INSERT ... SELECT;
+    // native spaces: só tb_outbox_evento - sem ele o Hibernate esvazia todo o cache de 2º nível, e
+    // tb_pagamento invalidaria a região de Pagamento. Lê de tb_pagamento só id e pedido_id, que não mudam;
+    // quem chama faz o flush das alterações pendentes antes
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tb_outbox_evento"))
+    // eventoId gerado por linha no próprio INSERT (RANDOM_UUID do H2)
+    @Query(nativeQuery = true, value = "INSERT INTO tb_outbox_evento (evento_id, pagamento_id, pedido_id, status, criado_em) " +
+            "SELECT RANDOM_UUID(), id, pedido_id, :status, :criadoEm FROM tb_pagamento WHERE id IN (:pagamentoIds) ORDER BY id")
+    int insertForPagamentos(Collection<Long> pagamentoIds, String status, Instant criadoEm);
+}
@@ -1,8 +1,53 @@
 package com.github.cidarosa.ms_pagamento.repository;
 
+import com.github.cidarosa.ms_pagamento.dto.PagamentoDTO;
 import com.github.cidarosa.ms_pagamento.entity.Pagamento;
+import com.github.cidarosa.ms_pagamento.entity.Status;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface PagamentoRepository extends JpaRepository<Pagamento, Long> {
 
+    // projeção direto no PagamentoDTO - leitura sem entidades gerenciadas nem snapshot no contexto
+    String SELECT_DTO = "SELECT new com.github.cidarosa.ms_pagamento.dto.PagamentoDTO(p.id, p.valor, p.nome, " +
+            "p.numeroDoCartao, p.validade, p.codigoDeSeguranca, p.status, p.pedidoId, p.formaDePagamentoId, " +
+            "p.version) FROM Pagamento p ";
+
+    @Query(SELECT_DTO + "ORDER BY p.id")
+    List<PagamentoDTO> findAllDTO();
+
+    // cursor forward-only para exportação - deve ser consumido dentro de uma transação
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_DTO + "ORDER BY p.id")
+    Stream<PagamentoDTO> streamAllDTO();
+
+    @Query(SELECT_DTO + "WHERE p.pedidoId = :pedidoId ORDER BY p.id")
+    List<PagamentoDTO> findDTOByPedidoId(Long pedidoId);
+
+    // um chunk de ids por chamada - ver PagamentoService.IN_CHUNK_SIZE
+    @Query(SELECT_DTO + "WHERE p.pedidoId IN :pedidoIds ORDER BY p.pedidoId, p.id")
+    List<PagamentoDTO> findDTOByPedidoIdIn(Collection<Long> pedidoIds);
+
+    // linhas do chunk em um status de origem permitido, travadas até o commit da transação
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Pagamento p WHERE p.id IN :ids AND p.status IN :origens ORDER BY p.id")
+    List<Pagamento> findForStatusChange(Collection<Long> ids, Collection<Status> origens);
+
+    // só a versão, para o If-None-Match - não carrega o pagamento
+    @Query("SELECT p.version FROM Pagamento p WHERE p.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    // só o status, para GET /pagamentos/{id}/status
+    @Query("SELECT p.status FROM Pagamento p WHERE p.id = :id")
+    Optional<Status> findStatusById(Long id);
 }
@@ -0,0 +1,49 @@
+package com.github.cidarosa.ms_pagamento.repository;
+
+import com.github.cidarosa.ms_pagamento.dto.ReceitaStatsDTO;
+import com.github.cidarosa.ms_pagamento.entity.ReceitaDiaria;
+import com.github.cidarosa.ms_pagamento.entity.ReceitaDiariaId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ReceitaDiariaRepository extends JpaRepository<ReceitaDiaria, ReceitaDiariaId> {
+
+    // projeção direto no DTO - lê o valor atual mesmo depois de um MERGE na mesma transação
+    @Query("SELECT new com.github.cidarosa.ms_pagamento.dto.ReceitaStatsDTO(r.dia, r.formaDePagamentoId, r.quantidade, r.valor) " +
+            "FROM ReceitaDiaria r WHERE r.dia BETWEEN :from AND :to")
+    List<ReceitaStatsDTO> findStatsByDiaBetween(LocalDate from, LocalDate to);
+
+    // incremento atômico no banco (MERGE) - gravações concorrentes no mesmo dia não perdem valores;
+    // native spaces: só tb_receita_diaria é alterada - o cache de 2º nível de tb_pagamento fica intacto
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tb_receita_diaria"))
+    @Query(nativeQuery = true, value = "MERGE INTO tb_receita_diaria r " +
+            "USING (VALUES (CAST(:dia AS DATE), CAST(:forma AS BIGINT), CAST(:quantidade AS BIGINT), " +
+            "CAST(:valor AS DECIMAL(38,2)))) AS d(dia, forma_de_pagamento_id, quantidade, valor) " +
+            "ON r.dia = d.dia AND r.forma_de_pagamento_id = d.forma_de_pagamento_id " +
+            "WHEN MATCHED THEN UPDATE SET quantidade = r.quantidade + d.quantidade, valor = r.valor + d.valor " +
+            "WHEN NOT MATCHED THEN INSERT (dia, forma_de_pagamento_id, quantidade, valor) " +
+            "VALUES (d.dia, d.forma_de_pagamento_id, d.quantidade, d.valor)")
+    void somar(LocalDate dia, Long forma, long quantidade, BigDecimal valor);
+
+    // recálculo a partir de tb_pagamento - agregação feita pelo banco, sem trazer as linhas para a aplicação
+    // native spaces: lê tb_pagamento - alterações pendentes vão ao banco antes (flush); invalida a região
+    // de Pagamento, aceitável para um recálculo eventual
+    @Modifying
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tb_receita_diaria"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tb_pagamento")
+    })
+    @Query(nativeQuery = true, value = "INSERT INTO tb_receita_diaria (dia, forma_de_pagamento_id, quantidade, valor) " +
+            "SELECT data, forma_de_pagamento_id, COUNT(*), SUM(valor) FROM tb_pagamento " +
+            "WHERE status = 'CONFIRMADO' GROUP BY data, forma_de_pagamento_id")
+    int insertFromPagamentos();
+}
@@ -1,29 +1,149 @@
 package com.github.cidarosa.ms_pagamento.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.cidarosa.ms_pagamento.client.PedidoClient;
 import com.github.cidarosa.ms_pagamento.dto.PagamentoDTO;
+import com.github.cidarosa.ms_pagamento.dto.PagamentoStatusBulkResultDTO;
+import com.github.cidarosa.ms_pagamento.dto.PagamentosDoPedidoDTO;
+import com.github.cidarosa.ms_pagamento.entity.AutorizacaoPendente;
+import com.github.cidarosa.ms_pagamento.entity.OutboxEvento;
 import com.github.cidarosa.ms_pagamento.entity.Pagamento;
 import com.github.cidarosa.ms_pagamento.entity.Status;
+import com.github.cidarosa.ms_pagamento.metrics.PagamentoMetrics;
+import com.github.cidarosa.ms_pagamento.repository.AutorizacaoPendenteRepository;
+import com.github.cidarosa.ms_pagamento.repository.OutboxEventoRepository;
 import com.github.cidarosa.ms_pagamento.repository.PagamentoRepository;
+import com.github.cidarosa.ms_pagamento.service.exceptions.ParametroInvalidoException;
 import com.github.cidarosa.ms_pagamento.service.exceptions.ResourceNotFoundException;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "pagamento.service", histogram = true)
 public class PagamentoService {
 
+    private static final Logger logger = LoggerFactory.getLogger(PagamentoService.class);
+
+    private static final int EXPORT_FLUSH_INTERVAL = 100;
+
+    // ids por IN - poucas queries por lote, com plano reaproveitado (in_clause_parameter_padding)
+    public static final int IN_CHUNK_SIZE = 100;
+    public static final int MAX_PEDIDO_IDS = 1000;
+    // ids por UPDATE na mudança de status em massa - cada chunk na sua transação
+    public static final int STATUS_CHUNK_SIZE = 500;
+
     @Autowired
     private PagamentoRepository repository;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PagamentoMetrics metrics;
+
+    @Autowired
+    private OutboxEventoRepository outboxRepository;
+
+    @Autowired
+    private PedidoClient pedidoClient;
+
+    @Autowired
+    private ReceitaService receitaService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private AutorizacaoPendenteRepository autorizacaoRepository;
+
     @Transactional(readOnly = true)
     public List<PagamentoDTO> getAll() {
-        List<Pagamento> pagamentos = repository.findAll();
-        return pagamentos.stream().map(PagamentoDTO::new).collect(Collectors.toList());
+        return repository.findAllDTO();
+    }
+
+    @Transactional(readOnly = true)
+    public List<PagamentoDTO> getByPedidoId(Long pedidoId) {
+        return repository.findDTOByPedidoId(pedidoId);
+    }
+
+    // pagamentos agrupados por pedido, na ordem dos ids recebidos (sem repetições)
+    @Transactional(readOnly = true)
+    public List<PagamentosDoPedidoDTO> getByPedidoIds(List<Long> pedidoIds) {
+
+        if (pedidoIds.contains(null)) {
+            throw new ParametroInvalidoException("Id de pedido nulo");
+        }
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(pedidoIds));
+        if (ids.size() > MAX_PEDIDO_IDS) {
+            throw new ParametroInvalidoException("Máximo de " + MAX_PEDIDO_IDS + " pedidos por consulta");
+        }
+
+        Map<Long, List<PagamentoDTO>> porPedido = new LinkedHashMap<>();
+        ids.forEach(id -> porPedido.put(id, new ArrayList<>()));
+        for (int start = 0; start < ids.size(); start += IN_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(start, Math.min(start + IN_CHUNK_SIZE, ids.size()));
+            for (PagamentoDTO dto : repository.findDTOByPedidoIdIn(chunk)) {
+                porPedido.get(dto.getPedidoId()).add(dto);
+            }
+        }
+        return porPedido.entrySet().stream()
+                .map(e -> new PagamentosDoPedidoDTO(e.getKey(), e.getValue()))
+                .toList();
+    }
+
+    // escreve um PagamentoDTO por linha (NDJSON) à medida que as linhas são lidas
+    @Transactional(readOnly = true)
+    public void exportAll(OutputStream out) throws IOException {
+
+        ObjectWriter writer = objectMapper.writerFor(PagamentoDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        // projeção: nada entra no contexto de persistência - memória constante sem detach
+        try (Stream<PagamentoDTO> stream = repository.streamAllDTO();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            int count = 0;
+            for (Iterator<PagamentoDTO> it = stream.iterator(); it.hasNext(); ) {
+                writer.writeValue(generator, it.next());
+                generator.writeRaw('\n');
+                if (++count % EXPORT_FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                }
+            }
+            generator.flush();
+        }
     }
 
     @Transactional(readOnly = true)
@@ -35,36 +155,182 @@ public class PagamentoService {
         return new PagamentoDTO(entity);
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
+    public Long getVersion(Long id) {
+        return repository.findVersionById(id).orElseThrow(
+                () -> new ResourceNotFoundException("Recurso não encontrado. ID: " + id)
+        );
+    }
+
+    @Transactional(readOnly = true)
+    public Status getStatus(Long id) {
+        return repository.findStatusById(id).orElseThrow(
+                () -> new ResourceNotFoundException("Recurso não encontrado. ID: " + id)
+        );
+    }
+
+    // sem @Transactional: a consulta ao ms-pedido não deve segurar uma conexão do banco;
+    // o save abre a própria transação
     public PagamentoDTO createPagamento(PagamentoDTO dto) {
 
+        pedidoClient.verificarPagavel(dto.getPedidoId());
+        return createPagamentoCriado(dto);
+    }
+
+    // modo assíncrono: grava CRIADO sem consultar o ms-pedido - a verificação
+    // fica para a autorização (AutorizacaoQueue), fora da requisição
+    public PagamentoDTO createPagamentoCriado(PagamentoDTO dto) {
+
         Pagamento entity = new Pagamento();
         copytDtoToEntity(dto, entity);
         entity.setStatus(Status.CRIADO);
+        entity.setData(LocalDate.now());
+        // nasce CRIADO - só entra no rollup de receita quando for CONFIRMADO
         entity = repository.save(entity);
+        metrics.statusAlterado(Status.CRIADO);
         return new PagamentoDTO(entity);
     }
 
+    // autorização assíncrona persistida: pagamento CRIADO e autorização pendente na mesma transação -
+    // se a instância cair antes do resultado, a pendência vence em prazo e é reenviada
+    @Transactional
+    public PagamentoDTO createPagamentoPendente(PagamentoDTO dto, Duration prazo) {
+
+        PagamentoDTO created = createPagamentoCriado(dto);
+        autorizacaoRepository.save(new AutorizacaoPendente(created.getId(), Instant.now().plus(prazo), 0));
+        return created;
+    }
+
+    // reserva até limite autorizações vencidas por mais um prazo e devolve os pagamentos ainda CRIADO;
+    // pendências de pagamento já alterado (ex.: PUT) ou apagado são removidas
+    @Transactional
+    public List<PagamentoDTO> reservarAutorizacoesVencidas(int limite, Duration prazo) {
+
+        Instant agora = Instant.now();
+        List<AutorizacaoPendente> vencidas = autorizacaoRepository.findVencidas(agora, PageRequest.of(0, limite));
+        if (vencidas.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Pagamento> pagamentos = new LinkedHashMap<>();
+        repository.findAllById(vencidas.stream().map(AutorizacaoPendente::getPagamentoId).toList())
+                .forEach(p -> pagamentos.put(p.getId(), p));
+
+        List<PagamentoDTO> reservados = new ArrayList<>();
+        List<AutorizacaoPendente> encerradas = new ArrayList<>();
+        for (AutorizacaoPendente pendente : vencidas) {
+            Pagamento pagamento = pagamentos.get(pendente.getPagamentoId());
+            if (pagamento == null || pagamento.getStatus() != Status.CRIADO) {
+                encerradas.add(pendente);
+                continue;
+            }
+            pendente.setProximaTentativa(agora.plus(prazo));
+            pendente.setTentativas(pendente.getTentativas() + 1);
+            reservados.add(new PagamentoDTO(pagamento));
+        }
+        autorizacaoRepository.deleteAllInBatch(encerradas);
+        return reservados;
+    }
+
+    // resultado gravado (ou sem decisão) - não há mais o que reenviar
+    @Transactional
+    public void removerAutorizacoesPendentes(Collection<Long> pagamentoIds) {
+        autorizacaoRepository.deleteAllByIdInBatch(pagamentoIds);
+    }
+
     @Transactional
     public PagamentoDTO updatePagamento(Long id, PagamentoDTO dto) {
 
         try {
             Pagamento entity = repository.getReferenceById(id);
+            ReceitaService.Lancamento antes = ReceitaService.Lancamento.of(entity);
             copytDtoToEntity(dto, entity);
+            boolean statusAlterado = entity.getStatus() != dto.getStatus();
             entity.setStatus(dto.getStatus());
             entity = repository.save(entity);
+            receitaService.registrar(antes, ReceitaService.Lancamento.of(entity));
+            if (statusAlterado) {
+                metrics.statusAlterado(dto.getStatus());
+                // mesma transação do UPDATE - o evento só existe se a mudança for gravada
+                outboxRepository.save(new OutboxEvento(null, UUID.randomUUID(), entity.getId(), entity.getPedidoId(),
+                        entity.getStatus(), Instant.now()));
+            }
+            // flush para o DTO já levar a versão incrementada
+            repository.flush();
             return new PagamentoDTO(entity);
         } catch (EntityNotFoundException e) {
             throw new ResourceNotFoundException("Recurso não encontrado. ID:" + id);
         }
     }
 
+    // liquidação em massa: por chunk, trava as linhas em um status de origem permitido e altera cada uma
+    // (UPDATEs em lote no flush); outbox e rollup de receita gravados na mesma transação, por conjunto
+    public PagamentoStatusBulkResultDTO updateStatus(List<Long> ids, Status status) {
+
+        if (status.getOrigens().isEmpty()) {
+            throw new ParametroInvalidoException("Status de destino inválido: " + status);
+        }
+        List<Long> unicos = new ArrayList<>(new LinkedHashSet<>(ids));
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        Set<Long> alterados = new HashSet<>();
+        Set<Long> falhas = new HashSet<>();
+        for (int start = 0; start < unicos.size(); start += STATUS_CHUNK_SIZE) {
+            List<Long> chunk = unicos.subList(start, Math.min(start + STATUS_CHUNK_SIZE, unicos.size()));
+            try {
+                alterados.addAll(transaction.execute(tx -> updateStatusChunk(chunk, status)));
+            } catch (DataAccessException | TransactionException e) {
+                // chunk desfeito - os ids dele voltam como falhas, não como rejeitados
+                logger.warn("Falha ao alterar status de {} pagamentos: {}", chunk.size(), e.getMessage());
+                falhas.addAll(chunk);
+            }
+        }
+        metrics.statusAlterado(status, alterados.size());
+
+        List<Long> alteradosOrdenados = new ArrayList<>();
+        List<Long> rejeitados = new ArrayList<>();
+        List<Long> falhasOrdenadas = new ArrayList<>();
+        for (Long id : unicos) {
+            if (alterados.contains(id)) {
+                alteradosOrdenados.add(id);
+            } else if (falhas.contains(id)) {
+                falhasOrdenadas.add(id);
+            } else {
+                rejeitados.add(id);
+            }
+        }
+        return new PagamentoStatusBulkResultDTO(alteradosOrdenados, rejeitados, falhasOrdenadas);
+    }
+
+    private List<Long> updateStatusChunk(List<Long> chunk, Status status) {
+
+        List<Pagamento> linhas = repository.findForStatusChange(chunk, status.getOrigens());
+        if (linhas.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = linhas.stream().map(Pagamento::getId).toList();
+        List<ReceitaService.Lancamento> antes = linhas.stream().map(ReceitaService.Lancamento::of).toList();
+        List<ReceitaService.Lancamento> depois = linhas.stream()
+                .map(p -> ReceitaService.Lancamento.of(p, status)).toList();
+
+        // linhas travadas acima, alteradas pela entidade: versão (ETag) incrementada e só essas entradas
+        // atualizadas no cache de 2º nível - um UPDATE em massa (JPQL) invalidaria a região inteira
+        linhas.forEach(p -> p.setStatus(status));
+        repository.flush();
+        outboxRepository.insertForPagamentos(ids, status.name(), Instant.now());
+        receitaService.registrarTodos(antes, depois);
+        return ids;
+    }
+
     @Transactional
     public void deletePagamento(Long id){
-        if(!repository.existsById(id)){
-            throw new ResourceNotFoundException("Recurso não encontrado. ID: " + id);
-        }
-        repository.deleteById(id);
+        // um único SELECT - existsById + deleteById liam a linha duas vezes
+        Pagamento entity = repository.findById(id).orElseThrow(
+                () -> new ResourceNotFoundException("Recurso não encontrado. ID: " + id)
+        );
+        receitaService.registrar(ReceitaService.Lancamento.of(entity), null);
+        repository.delete(entity);
     }
 
     private void copytDtoToEntity(PagamentoDTO dto, Pagamento entity) {
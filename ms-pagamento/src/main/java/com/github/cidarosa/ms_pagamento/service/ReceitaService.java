@@ -0,0 +1,136 @@
+package com.github.cidarosa.ms_pagamento.service;
+
+import com.github.cidarosa.ms_pagamento.dto.ReceitaStatsDTO;
+import com.github.cidarosa.ms_pagamento.entity.Pagamento;
+import com.github.cidarosa.ms_pagamento.entity.Status;
+import com.github.cidarosa.ms_pagamento.repository.ReceitaDiariaRepository;
+import com.github.cidarosa.ms_pagamento.service.exceptions.ParametroInvalidoException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// receita confirmada por dia e forma de pagamento, servida pelo rollup tb_receita_diaria
+@Service
+public class ReceitaService {
+
+    public static final String DIA = "dia";
+    public static final String FORMA_DE_PAGAMENTO = "formaDePagamentoId";
+
+    // o rollup tem no máximo (dias x formas de pagamento) linhas no período
+    public static final int MAX_DIAS = 366;
+
+    @Autowired
+    private ReceitaDiariaRepository repository;
+
+    // parte do pagamento que entra na receita - null quando não está CONFIRMADO
+    public record Lancamento(LocalDate dia, Long formaDePagamentoId, BigDecimal valor) {
+
+        public static Lancamento of(Pagamento entity) {
+            return of(entity, entity.getStatus());
+        }
+
+        // como o pagamento entraria na receita com outro status
+        public static Lancamento of(Pagamento entity, Status status) {
+            if (status != Status.CONFIRMADO) {
+                return null;
+            }
+            return new Lancamento(entity.getData(), entity.getFormaDePagamentoId(), entity.getValor());
+        }
+    }
+
+    // aplica a diferença entre o antes e o depois de uma gravação, na mesma transação dela
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(Lancamento antes, Lancamento depois) {
+        if (Objects.equals(antes, depois)) {
+            return;
+        }
+        if (antes != null) {
+            repository.somar(antes.dia(), antes.formaDePagamentoId(), -1, antes.valor().negate());
+        }
+        if (depois != null) {
+            repository.somar(depois.dia(), depois.formaDePagamentoId(), 1, depois.valor());
+        }
+    }
+
+    // mudança em massa: soma as diferenças por dia e forma de pagamento - um MERGE por linha do rollup
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarTodos(List<Lancamento> antes, List<Lancamento> depois) {
+
+        Map<List<Object>, Lancamento> saldo = new HashMap<>();
+        Map<List<Object>, Long> quantidade = new HashMap<>();
+        acumular(antes, -1, saldo, quantidade);
+        acumular(depois, 1, saldo, quantidade);
+        saldo.forEach((chave, lancamento) -> {
+            long q = quantidade.get(chave);
+            if (q != 0 || lancamento.valor().signum() != 0) {
+                repository.somar(lancamento.dia(), lancamento.formaDePagamentoId(), q, lancamento.valor());
+            }
+        });
+    }
+
+    private static void acumular(List<Lancamento> lancamentos, int sinal,
+                                 Map<List<Object>, Lancamento> saldo, Map<List<Object>, Long> quantidade) {
+        for (Lancamento l : lancamentos) {
+            if (l == null) {
+                continue;
+            }
+            List<Object> chave = Arrays.asList(l.dia(), l.formaDePagamentoId());
+            BigDecimal valor = sinal < 0 ? l.valor().negate() : l.valor();
+            saldo.merge(chave, new Lancamento(l.dia(), l.formaDePagamentoId(), valor),
+                    (a, b) -> new Lancamento(a.dia(), a.formaDePagamentoId(), a.valor().add(b.valor())));
+            quantidade.merge(chave, (long) sinal, Long::sum);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<ReceitaStatsDTO> getStats(LocalDate from, LocalDate to, List<String> groupBy) {
+
+        if (from.isAfter(to)) {
+            throw new ParametroInvalidoException("from deve ser anterior ou igual a to");
+        }
+        if (from.plusDays(MAX_DIAS).isBefore(to)) {
+            throw new ParametroInvalidoException("Período máximo de " + MAX_DIAS + " dias");
+        }
+        for (String campo : groupBy) {
+            if (!DIA.equals(campo) && !FORMA_DE_PAGAMENTO.equals(campo)) {
+                throw new ParametroInvalidoException("groupBy inválido: " + campo
+                        + " - use " + DIA + " e/ou " + FORMA_DE_PAGAMENTO);
+            }
+        }
+        boolean porDia = groupBy.contains(DIA);
+        boolean porForma = groupBy.contains(FORMA_DE_PAGAMENTO);
+
+        // no máximo (dias x formas) linhas lidas do rollup - soma as dimensões fora do groupBy
+        Map<List<Object>, ReceitaStatsDTO> stats = new HashMap<>();
+        for (ReceitaStatsDTO receita : repository.findStatsByDiaBetween(from, to)) {
+            LocalDate dia = porDia ? receita.getDia() : null;
+            Long forma = porForma ? receita.getFormaDePagamentoId() : null;
+            stats.merge(Arrays.asList(dia, forma),
+                    new ReceitaStatsDTO(dia, forma, receita.getQuantidade(), receita.getValorTotal()),
+                    (a, b) -> new ReceitaStatsDTO(dia, forma, a.getQuantidade() + b.getQuantidade(),
+                            a.getValorTotal().add(b.getValorTotal())));
+        }
+        List<ReceitaStatsDTO> result = new ArrayList<>(stats.values());
+        result.sort(Comparator.comparing(ReceitaStatsDTO::getDia, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(ReceitaStatsDTO::getFormaDePagamentoId, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return result;
+    }
+
+    // recalcula todo o rollup a partir de tb_pagamento; retorna o número de linhas geradas
+    @Transactional
+    public int reconstruir() {
+        repository.deleteAllInBatch();
+        return repository.insertFromPagamentos();
+    }
+}
@@ -0,0 +1,8 @@
+package com.github.cidarosa.ms_pagamento.service.exceptions;
+
+public class AutorizacaoSaturadaException extends RuntimeException{
+
+    public AutorizacaoSaturadaException(String message) {
+        super(message);
+    }
+}
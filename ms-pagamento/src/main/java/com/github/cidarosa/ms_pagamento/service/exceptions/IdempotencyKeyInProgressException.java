@@ -0,0 +1,8 @@
+package com.github.cidarosa.ms_pagamento.service.exceptions;
+
+public class IdempotencyKeyInProgressException extends RuntimeException{
+
+    public IdempotencyKeyInProgressException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.github.cidarosa.ms_pagamento.service.exceptions;
+
+public class IdempotencyKeyMismatchException extends RuntimeException{
+
+    public IdempotencyKeyMismatchException(String message) {
+        super(message);
+    }
+}
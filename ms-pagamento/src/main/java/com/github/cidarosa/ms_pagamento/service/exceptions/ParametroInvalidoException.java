@@ -0,0 +1,8 @@
+package com.github.cidarosa.ms_pagamento.service.exceptions;
+
+public class ParametroInvalidoException extends RuntimeException{
+
+    public ParametroInvalidoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.github.cidarosa.ms_pagamento.service.exceptions;
+
+public class PedidoIndisponivelException extends RuntimeException{
+
+    public PedidoIndisponivelException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,8 @@
+package com.github.cidarosa.ms_pagamento.service.exceptions;
+
+public class PedidoInvalidoException extends RuntimeException{
+
+    public PedidoInvalidoException(String message) {
+        super(message);
+    }
+}
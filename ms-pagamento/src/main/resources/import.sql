@@ -1,7 +1,9 @@
-INSERT INTO tb_pagamento(valor, nome, numero_do_cartao, validade, codigo_de_seguranca, status, pedido_id, forma_de_pagamento_id) VALUES(35.55, 'Amadeus Mozart', '6895426578961254', '12/30', '589', 'CRIADO', 5, 2);
-INSERT INTO tb_pagamento(valor, nome, numero_do_cartao, validade, codigo_de_seguranca, status, pedido_id, forma_de_pagamento_id) VALUES(95.50, 'Chiquinha Gonzaga', '2457896547123654', '01/28', '389', 'CRIADO', 3, 2);
-INSERT INTO tb_pagamento(valor, nome, numero_do_cartao, validade, codigo_de_seguranca, status, pedido_id, forma_de_pagamento_id) VALUES(128.0, 'Ludwig van Beethoven', '2456178921437892', '07/32', '379', 'CRIADO', 15, 2);
+INSERT INTO tb_pagamento(valor, nome, numero_do_cartao, validade, codigo_de_seguranca, status, pedido_id, forma_de_pagamento_id, data, version) VALUES(35.55, 'Amadeus Mozart', '6895426578961254', '12/30', '589', 'CRIADO', 5, 2, '2025-04-24', 0);
+INSERT INTO tb_pagamento(valor, nome, numero_do_cartao, validade, codigo_de_seguranca, status, pedido_id, forma_de_pagamento_id, data, version) VALUES(95.50, 'Chiquinha Gonzaga', '2457896547123654', '01/28', '389', 'CRIADO', 3, 2, '2025-04-24', 0);
+INSERT INTO tb_pagamento(valor, nome, numero_do_cartao, validade, codigo_de_seguranca, status, pedido_id, forma_de_pagamento_id, data, version) VALUES(128.0, 'Ludwig van Beethoven', '2456178921437892', '07/32', '379', 'CRIADO', 15, 2, '2025-04-24', 0);
 
-INSERT INTO tb_pagamento(valor,  status, pedido_id, forma_de_pagamento_id) VALUES(1200, 'CRIADO', 4, 1);
-INSERT INTO tb_pagamento(valor,  status, pedido_id, forma_de_pagamento_id) VALUES(1200, 'CANCELADO', 4, 1);
-INSERT INTO tb_pagamento(valor,  status, pedido_id, forma_de_pagamento_id) VALUES(125.25, 'CONFIRMADO', 6, 1);
\ No newline at end of file
+INSERT INTO tb_pagamento(valor,  status, pedido_id, forma_de_pagamento_id, data, version) VALUES(1200, 'CRIADO', 4, 1, '2025-04-25', 0);
+INSERT INTO tb_pagamento(valor,  status, pedido_id, forma_de_pagamento_id, data, version) VALUES(1200, 'CANCELADO', 4, 1, '2025-04-25', 0);
+INSERT INTO tb_pagamento(valor,  status, pedido_id, forma_de_pagamento_id, data, version) VALUES(125.25, 'CONFIRMADO', 6, 1, '2025-04-25', 0);
+
+INSERT INTO tb_receita_diaria(dia, forma_de_pagamento_id, quantidade, valor) VALUES('2025-04-25', 1, 1, 125.25);
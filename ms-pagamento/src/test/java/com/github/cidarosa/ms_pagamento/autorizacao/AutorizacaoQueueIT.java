@@ -0,0 +1,288 @@
+package com.github.cidarosa.ms_pagamento.autorizacao;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.cidarosa.ms_pagamento.entity.OutboxEvento;
+import com.github.cidarosa.ms_pagamento.entity.Status;
+import com.github.cidarosa.ms_pagamento.repository.AutorizacaoPendenteRepository;
+import com.github.cidarosa.ms_pagamento.repository.OutboxEventoRepository;
+import com.github.cidarosa.ms_pagamento.repository.PagamentoRepository;
+import com.github.cidarosa.ms_pagamento.service.PagamentoService;
+import com.github.cidarosa.ms_pagamento.service.ReceitaService;
+import com.github.cidarosa.ms_pagamento.service.exceptions.PedidoIndisponivelException;
+import com.github.cidarosa.ms_pagamento.tests.Factory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// banco próprio - o POST e a gravação dos resultados são commitados; Autorizador substituído por mock
+// para controlar o resultado e segurar os workers (1 worker + 1 vaga na fila).
+// Pendências vencem na hora e o reenvio só roda quando o teste chama reenviar()
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:autorizacaodb",
+        "pagamento.autorizacao.async.enabled=true",
+        "pagamento.autorizacao.workers=1",
+        "pagamento.autorizacao.queue-depth=1",
+        "pagamento.autorizacao.redrive.after=0s",
+        "pagamento.autorizacao.redrive.interval=1h"
+})
+@AutoConfigureMockMvc
+public class AutorizacaoQueueIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PagamentoRepository repository;
+
+    @Autowired
+    private OutboxEventoRepository outboxRepository;
+
+    @Autowired
+    private AutorizacaoPendenteRepository autorizacaoRepository;
+
+    @Autowired
+    private PagamentoService service;
+
+    @Autowired
+    private AutorizacaoQueue queue;
+
+    @MockitoBean
+    private Autorizador autorizador;
+
+    // para desfazer o chunk do updateStatus com um erro de banco
+    @MockitoSpyBean
+    private ReceitaService receitaService;
+
+    private final CountDownLatch liberar = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        // nenhum worker fica preso para o próximo teste
+        liberar.countDown();
+    }
+
+    private ResultActions createPagamento() throws Exception {
+        return mockMvc.perform(post("/pagamentos")
+                .content(objectMapper.writeValueAsString(Factory.createNewPagamentoDTO()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON));
+    }
+
+    private Long createAccepted() throws Exception {
+        MvcResult result = createPagamento()
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status").value("CRIADO"))
+                .andReturn();
+        JsonNode body = objectMapper.readTree(result.getResponse().getContentAsString());
+        Long id = body.get("id").asLong();
+        Assertions.assertTrue(result.getResponse().getHeader("Location").endsWith("/pagamentos/" + id + "/status"));
+        return id;
+    }
+
+    private ResultActions longPoll(Long id, long wait) throws Exception {
+        MvcResult result = mockMvc.perform(get("/pagamentos/{id}/status", id)
+                        .param("wait", String.valueOf(wait))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+
+    private void bloquearAutorizacao(Status resultado) {
+        Mockito.when(autorizador.autorizar(any())).thenAnswer(invocation -> {
+            liberar.await(10, TimeUnit.SECONDS);
+            return resultado;
+        });
+    }
+
+    @Test
+    public void createShouldReturnAcceptedAndLongPollShouldReturnConfirmado() throws Exception {
+
+        Mockito.when(autorizador.autorizar(any())).thenReturn(Status.CONFIRMADO);
+
+        Long id = createAccepted();
+
+        longPoll(id, 5)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(id))
+                .andExpect(jsonPath("$.status").value("CONFIRMADO"))
+                .andExpect(jsonPath("$.pendente").value(false));
+        Assertions.assertEquals(Status.CONFIRMADO, repository.findById(id).orElseThrow().getStatus());
+        // gravado pelo updateStatus - evento de outbox na mesma transação
+        Assertions.assertTrue(outboxRepository.findAll().stream()
+                .map(OutboxEvento::getPagamentoId)
+                .anyMatch(id::equals));
+    }
+
+    @Test
+    public void createShouldEndCanceladoWhenAutorizacaoIsRefused() throws Exception {
+
+        Mockito.when(autorizador.autorizar(any())).thenReturn(Status.CANCELADO);
+
+        Long id = createAccepted();
+
+        longPoll(id, 5)
+                .andExpect(jsonPath("$.status").value("CANCELADO"))
+                .andExpect(jsonPath("$.pendente").value(false));
+    }
+
+    @Test
+    public void getStatusShouldReturnPendenteWhileAutorizacaoIsRunning() throws Exception {
+
+        bloquearAutorizacao(Status.CONFIRMADO);
+        Long id = createAccepted();
+
+        // sem wait: responde na hora
+        longPoll(id, 0)
+                .andExpect(jsonPath("$.status").value("CRIADO"))
+                .andExpect(jsonPath("$.pendente").value(true));
+        // prazo do long-poll esgotado com a autorização ainda presa
+        longPoll(id, 1)
+                .andExpect(jsonPath("$.status").value("CRIADO"))
+                .andExpect(jsonPath("$.pendente").value(true));
+
+        liberar.countDown();
+        longPoll(id, 5)
+                .andExpect(jsonPath("$.status").value("CONFIRMADO"))
+                .andExpect(jsonPath("$.pendente").value(false));
+    }
+
+    @Test
+    public void createShouldReturnServiceUnavailableWithoutSavingWhenQueueIsFull() throws Exception {
+
+        bloquearAutorizacao(Status.CONFIRMADO);
+        long antes = repository.count();
+
+        Long emExecucao = createAccepted();
+        Long naFila = createAccepted();
+        createPagamento()
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+
+        // o recusado não foi gravado
+        Assertions.assertEquals(antes + 2, repository.count());
+
+        liberar.countDown();
+        longPoll(emExecucao, 5).andExpect(jsonPath("$.status").value("CONFIRMADO"));
+        longPoll(naFila, 5).andExpect(jsonPath("$.status").value("CONFIRMADO"));
+        // vagas devolvidas - volta a aceitar
+        createAccepted();
+    }
+
+    @Test
+    public void createShouldKeepCriadoWithoutReenvioWhenAutorizadorHasNoDecision() throws Exception {
+
+        Mockito.when(autorizador.autorizar(any())).thenReturn(Status.CRIADO);
+
+        Long id = createAccepted();
+
+        longPoll(id, 5)
+                .andExpect(jsonPath("$.status").value("CRIADO"))
+                .andExpect(jsonPath("$.pendente").value(false));
+        // nada a reenviar
+        Assertions.assertFalse(autorizacaoRepository.existsById(id));
+        Assertions.assertEquals(Status.CRIADO, repository.findById(id).orElseThrow().getStatus());
+    }
+
+    @Test
+    public void reenviarShouldAuthorizePagamentoLeftCriadoByFailure() throws Exception {
+
+        Mockito.when(autorizador.autorizar(any()))
+                .thenThrow(new PedidoIndisponivelException("ms-pedido indisponível", null))
+                .thenReturn(Status.CONFIRMADO);
+
+        Long id = createAccepted();
+        longPoll(id, 5)
+                .andExpect(jsonPath("$.status").value("CRIADO"))
+                .andExpect(jsonPath("$.pendente").value(false));
+        // falha não encerra a pendência
+        Assertions.assertTrue(autorizacaoRepository.existsById(id));
+
+        Assertions.assertTrue(queue.reenviar() >= 1);
+
+        longPoll(id, 5)
+                .andExpect(jsonPath("$.status").value("CONFIRMADO"))
+                .andExpect(jsonPath("$.pendente").value(false));
+        Assertions.assertEquals(Status.CONFIRMADO, repository.findById(id).orElseThrow().getStatus());
+        Assertions.assertFalse(autorizacaoRepository.existsById(id));
+    }
+
+    @Test
+    public void createShouldKeepPendenciaWhenStatusChunkFails() throws Exception {
+
+        Mockito.when(autorizador.autorizar(any())).thenReturn(Status.CONFIRMADO);
+        Mockito.doThrow(new DataAccessResourceFailureException("banco indisponível"))
+                .doCallRealMethod()
+                // spy atrás do proxy transacional - o stub não passa pelo MANDATORY
+                .when((ReceitaService) AopTestUtils.getUltimateTargetObject(receitaService))
+                .registrarTodos(any(), any());
+
+        Long id = createAccepted();
+        longPoll(id, 5)
+                .andExpect(jsonPath("$.status").value("CRIADO"))
+                .andExpect(jsonPath("$.pendente").value(false));
+        // chunk desfeito - nada gravado e a pendência continua para o reenvio
+        Assertions.assertEquals(Status.CRIADO, repository.findById(id).orElseThrow().getStatus());
+        Assertions.assertTrue(autorizacaoRepository.existsById(id));
+
+        Assertions.assertTrue(queue.reenviar() >= 1);
+
+        longPoll(id, 5)
+                .andExpect(jsonPath("$.status").value("CONFIRMADO"))
+                .andExpect(jsonPath("$.pendente").value(false));
+        Assertions.assertFalse(autorizacaoRepository.existsById(id));
+    }
+
+    @Test
+    public void reenviarShouldAuthorizePendingPagamentoSavedBeforeRestart() throws Exception {
+
+        Mockito.when(autorizador.autorizar(any())).thenReturn(Status.CANCELADO);
+
+        // gravado e nunca enfileirado - como uma instância que caiu depois do 202
+        Long id = service.createPagamentoPendente(Factory.createNewPagamentoDTO(), Duration.ZERO).getId();
+
+        Assertions.assertTrue(queue.reenviar() >= 1);
+
+        longPoll(id, 5)
+                .andExpect(jsonPath("$.status").value("CANCELADO"))
+                .andExpect(jsonPath("$.pendente").value(false));
+        Assertions.assertFalse(autorizacaoRepository.existsById(id));
+    }
+
+    @Test
+    public void getStatusShouldReturnNotFoundWhenIdDoesNotExist() throws Exception {
+
+        mockMvc.perform(get("/pagamentos/{id}/status", 1000L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.cidarosa.ms_pagamento.autorizacao;
+
+import com.github.cidarosa.ms_pagamento.client.PedidoClient;
+import com.github.cidarosa.ms_pagamento.dto.PagamentoDTO;
+import com.github.cidarosa.ms_pagamento.entity.Status;
+import com.github.cidarosa.ms_pagamento.service.exceptions.PedidoIndisponivelException;
+import com.github.cidarosa.ms_pagamento.service.exceptions.PedidoInvalidoException;
+import com.github.cidarosa.ms_pagamento.tests.Factory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@ExtendWith(SpringExtension.class)
+public class PedidoAutorizadorTest {
+
+    @InjectMocks
+    private PedidoAutorizador autorizador;
+
+    @Mock
+    private PedidoClient pedidoClient;
+
+    private PagamentoDTO dto;
+
+    @BeforeEach
+    void setUp() {
+        dto = Factory.createNewPagamentoDTO();
+    }
+
+    @Test
+    public void autorizarShouldReturnCriadoWithoutCallingPedidoWhenVerificacaoIsDisabled() {
+
+        Mockito.when(pedidoClient.isVerificarPedido()).thenReturn(false);
+
+        Assertions.assertEquals(Status.CRIADO, autorizador.autorizar(dto));
+        Mockito.verify(pedidoClient, Mockito.never()).verificarPagavel(Mockito.any());
+    }
+
+    @Test
+    public void autorizarShouldReturnConfirmadoWhenPedidoIsPagavel() {
+
+        Mockito.when(pedidoClient.isVerificarPedido()).thenReturn(true);
+
+        Assertions.assertEquals(Status.CONFIRMADO, autorizador.autorizar(dto));
+    }
+
+    @Test
+    public void autorizarShouldReturnCanceladoWhenPedidoIsRefused() {
+
+        Mockito.when(pedidoClient.isVerificarPedido()).thenReturn(true);
+        Mockito.doThrow(new PedidoInvalidoException("Pedido não aceita pagamento"))
+                .when(pedidoClient).verificarPagavel(dto.getPedidoId());
+
+        Assertions.assertEquals(Status.CANCELADO, autorizador.autorizar(dto));
+    }
+
+    @Test
+    public void autorizarShouldThrowWhenPedidoIsUnavailable() {
+
+        Mockito.when(pedidoClient.isVerificarPedido()).thenReturn(true);
+        Mockito.doThrow(new PedidoIndisponivelException("ms-pedido indisponível", null))
+                .when(pedidoClient).verificarPagavel(dto.getPedidoId());
+
+        Assertions.assertThrows(PedidoIndisponivelException.class, () -> autorizador.autorizar(dto));
+    }
+}
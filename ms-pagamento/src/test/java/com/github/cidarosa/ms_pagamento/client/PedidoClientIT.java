@@ -0,0 +1,224 @@
+package com.github.cidarosa.ms_pagamento.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.cidarosa.ms_pagamento.service.exceptions.PedidoIndisponivelException;
+import com.github.cidarosa.ms_pagamento.tests.Factory;
+import com.github.cidarosa.ms_pagamento.tests.PedidoStandIn;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// ms-pedido substituído pelo PedidoStandIn - latência e erros injetados por teste;
+// contexto novo a cada teste para zerar circuit breaker e cache
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:pedidoclientdb",
+        "pagamento.pedido-client.verificar-pedido=true",
+        "pagamento.pedido-client.read-timeout=500ms",
+        "pagamento.pedido-client.bulkhead.max-concurrent-calls=2",
+        "pagamento.pedido-client.circuit-breaker.sliding-window=4",
+        "pagamento.pedido-client.circuit-breaker.minimum-calls=4",
+        "pagamento.pedido-client.circuit-breaker.wait-in-open=60s",
+        "pagamento.pedido-client.cache.ttl=1m"
+})
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class PedidoClientIT {
+
+    private static final PedidoStandIn pedido = start();
+
+    private static final String AGUARDANDO = "{\"status\": \"AGUARDANDO_PAGAMENTO\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PedidoClient client;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("pagamento.pedido-client.url", pedido::getUrl);
+    }
+
+    @BeforeEach
+    void setup() throws Exception {
+        pedido.reset();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        pedido.close();
+    }
+
+    private ResultActions createPagamento() throws Exception {
+        return mockMvc.perform(post("/pagamentos")
+                .content(objectMapper.writeValueAsString(Factory.createNewPagamentoDTO()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    public void createShouldAcceptPedidoAguardandoPagamentoAndCacheItsStatus() throws Exception {
+
+        pedido.respondWith(200, AGUARDANDO);
+
+        createPagamento().andExpect(status().isCreated());
+        createPagamento().andExpect(status().isCreated());
+
+        // segunda consulta servida pelo cache
+        Assertions.assertEquals(1, pedido.getRequests().size());
+        // só o status - não o pedido com os itens
+        Assertions.assertEquals("/pedidos/1/status", pedido.getRequests().get(0).path());
+    }
+
+    @Test
+    public void createShouldAcceptPedidoRealizado() throws Exception {
+
+        // status de todo pedido recém-criado no ms-pedido
+        pedido.respondWith(200, "{\"status\": \"REALIZADO\"}");
+
+        createPagamento().andExpect(status().isCreated());
+    }
+
+    @Test
+    public void createShouldReturnUnprocessableEntityWhenPedidoDoesNotAcceptPagamento() throws Exception {
+
+        pedido.respondWith(200, "{\"status\": \"PAGO\"}");
+
+        createPagamento().andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    public void createShouldReturnUnprocessableEntityWhenPedidoDoesNotExist() throws Exception {
+
+        pedido.respondWith(404, "{}");
+
+        createPagamento().andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    public void createShouldFailFastWhenPedidoIsSlow() throws Exception {
+
+        pedido.respondWith(200, AGUARDANDO);
+        pedido.delay(Duration.ofSeconds(3));
+
+        long start = System.nanoTime();
+        createPagamento().andExpect(status().isServiceUnavailable());
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // limitado pelo read-timeout (500ms), não pela latência do ms-pedido
+        Assertions.assertTrue(elapsed.compareTo(Duration.ofMillis(1500)) < 0, "demorou " + elapsed);
+    }
+
+    @Test
+    public void createShouldStopCallingPedidoWhenCircuitIsOpen() throws Exception {
+
+        pedido.respondWith(500, "{}");
+        for (int i = 0; i < 4; i++) {
+            createPagamento().andExpect(status().isServiceUnavailable());
+        }
+
+        createPagamento().andExpect(status().isServiceUnavailable());
+
+        // circuito aberto depois de 4 falhas - a quinta nem chega ao ms-pedido
+        Assertions.assertEquals(4, pedido.getRequests().size());
+    }
+
+    @Test
+    public void getStatusShouldRejectCallsBeyondBulkheadLimit() throws Exception {
+
+        pedido.respondWith(200, AGUARDANDO);
+        pedido.delay(Duration.ofMillis(300));
+
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (long pedidoId = 1; pedidoId <= 6; pedidoId++) {
+                long id = pedidoId;
+                futures.add(executor.submit(() -> client.getStatus(id)));
+            }
+
+            int rejeitadas = 0;
+            for (Future<String> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    Assertions.assertInstanceOf(PedidoIndisponivelException.class, e.getCause());
+                    Assertions.assertInstanceOf(BulkheadFullException.class, e.getCause().getCause());
+                    rejeitadas++;
+                }
+            }
+            // no máximo 2 chamadas simultâneas chegam ao ms-pedido
+            Assertions.assertTrue(rejeitadas > 0);
+            Assertions.assertEquals(6 - rejeitadas, pedido.getRequests().size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void getStatusShouldShareOneRequestBetweenConcurrentCallsForSamePedido() throws Exception {
+
+        pedido.respondWith(200, AGUARDANDO);
+        pedido.delay(Duration.ofMillis(300));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> client.getStatus(1L)));
+            }
+            for (Future<String> future : futures) {
+                Assertions.assertEquals(PedidoClient.AGUARDANDO_PAGAMENTO, future.get());
+            }
+            Assertions.assertEquals(1, pedido.getRequests().size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void getStatusShouldNotCacheFailures() {
+
+        pedido.respondWith(500, "{}");
+        Assertions.assertThrows(PedidoIndisponivelException.class, () -> client.getStatus(1L));
+
+        pedido.respondWith(200, AGUARDANDO);
+        Assertions.assertEquals(PedidoClient.AGUARDANDO_PAGAMENTO, client.getStatus(1L));
+        Assertions.assertEquals(2, pedido.getRequests().size());
+    }
+
+    private static PedidoStandIn start() {
+        try {
+            return new PedidoStandIn();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -2,17 +2,25 @@ package com.github.cidarosa.ms_pagamento.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.cidarosa.ms_pagamento.dto.PagamentoDTO;
+import com.github.cidarosa.ms_pagamento.repository.PagamentoRepository;
+import com.github.cidarosa.ms_pagamento.service.PagamentoService;
 import com.github.cidarosa.ms_pagamento.tests.Factory;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.stream.LongStream;
+
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -32,6 +40,9 @@ public class PagamentoControllerIT {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private PagamentoRepository repository;
+
     @BeforeEach
     void setup() throws Exception {
         existingId = 1L;
@@ -53,6 +64,26 @@ public class PagamentoControllerIT {
                 .andExpect(jsonPath("[5].status").value("CONFIRMADO"));
     }
 
+    @Test
+    public void exportShouldStreamAllPagamentosAsNdjson() throws Exception {
+
+        MvcResult result = mockMvc.perform(get("/pagamentos/export")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        Assertions.assertEquals(6, lines.length);
+        PagamentoDTO first = objectMapper.readValue(lines[0], PagamentoDTO.class);
+        Assertions.assertEquals(1L, first.getId());
+        Assertions.assertEquals("Amadeus Mozart", first.getNome());
+    }
+
     @Test
     public void getByIdShouldReturnPagamentoDTOWhenIdExists() throws Exception {
 
@@ -68,6 +99,54 @@ public class PagamentoControllerIT {
                 .andExpect(jsonPath("status").value("CRIADO"));
     }
 
+    @Test
+    public void getByIdShouldReturnETagWhenIdExists() throws Exception {
+
+        mockMvc.perform(get("/pagamentos/{id}", existingId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andExpect(jsonPath("version").doesNotExist());
+    }
+
+    @Test
+    public void getByIdShouldReturnNotModifiedWhenETagMatches() throws Exception {
+
+        mockMvc.perform(get("/pagamentos/{id}", existingId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    public void getByIdShouldReturnNewETagAfterUpdate() throws Exception {
+
+        mockMvc.perform(put("/pagamentos/{id}", existingId)
+                        .content(objectMapper.writeValueAsString(dto))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/pagamentos/{id}", existingId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("id").value(1));
+    }
+
+    @Test
+    public void getByIdShouldReturnNotFoundWhenIfNoneMatchAndIdDoesNotExist() throws Exception {
+
+        mockMvc.perform(get("/pagamentos/{id}", nonExistingId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     public void getByIdShouldReturnNotFoundExceptionWhenIdDoesNotExist() throws Exception {
 
@@ -100,6 +179,53 @@ public class PagamentoControllerIT {
 
     }
 
+    @Test
+    public void createShouldReplayResponseWhenIdempotencyKeyIsRepeated() throws Exception {
+
+        String jsonRequestBody = objectMapper.writeValueAsString(Factory.createNewPagamentoDTO());
+        long before = repository.count();
+
+        MvcResult first = mockMvc.perform(post("/pagamentos")
+                        .header("Idempotency-Key", "checkout-42")
+                        .content(jsonRequestBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "false"))
+                .andReturn();
+
+        mockMvc.perform(post("/pagamentos")
+                        .header("Idempotency-Key", "checkout-42")
+                        .content(jsonRequestBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(header().string("Location", first.getResponse().getHeader("Location")))
+                .andExpect(content().json(first.getResponse().getContentAsString()));
+
+        Assertions.assertEquals(before + 1, repository.count());
+    }
+
+    @Test
+    public void createShouldReturnUnprocessableEntityWhenIdempotencyKeyIsReusedWithOtherBody() throws Exception {
+
+        mockMvc.perform(post("/pagamentos")
+                        .header("Idempotency-Key", "checkout-43")
+                        .content(objectMapper.writeValueAsString(Factory.createNewPagamentoDTO()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/pagamentos")
+                        .header("Idempotency-Key", "checkout-43")
+                        .content(objectMapper.writeValueAsString(dto))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
     @Test
     public void createShouldPersistPagamentoWithRequiredFields() throws Exception {
 
@@ -203,4 +329,107 @@ public class PagamentoControllerIT {
                 .andExpect(status().isNotFound());
     }
 
+
+    @Test
+    public void statsShouldReturnConfirmedRevenueGroupedByDayAndFormaDePagamento() throws Exception {
+
+        mockMvc.perform(get("/pagamentos/stats")
+                        .param("from", "2025-04-01")
+                        .param("to", "2025-04-30")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].dia").value("2025-04-25"))
+                .andExpect(jsonPath("$[0].formaDePagamentoId").value(1))
+                .andExpect(jsonPath("$[0].quantidade").value(1))
+                .andExpect(jsonPath("$[0].valorTotal").value(125.25));
+    }
+
+    @Test
+    public void statsShouldOmitDimensionsOutsideGroupBy() throws Exception {
+
+        mockMvc.perform(get("/pagamentos/stats")
+                        .param("from", "2025-04-01")
+                        .param("to", "2025-04-30")
+                        .param("groupBy", "formaDePagamentoId")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].formaDePagamentoId").value(1))
+                .andExpect(jsonPath("$[0].dia").doesNotExist());
+    }
+
+    @Test
+    public void statsShouldReturnBadRequestWhenGroupByIsInvalid() throws Exception {
+
+        mockMvc.perform(get("/pagamentos/stats")
+                        .param("groupBy", "nome")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void getAllShouldReturnOnlyPagamentosOfPedidoWhenPedidoIdIsGiven() throws Exception {
+
+        mockMvc.perform(get("/pagamentos")
+                        .param("pedidoId", "4")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(4))
+                .andExpect(jsonPath("$[1].id").value(5))
+                .andExpect(jsonPath("$[1].status").value("CANCELADO"));
+    }
+
+    @Test
+    public void getByPedidoIdsShouldGroupPagamentosByPedidoInRequestOrder() throws Exception {
+
+        mockMvc.perform(post("/pagamentos/by-pedidos")
+                        .content("[6, 4, 99, 4]")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].pedidoId").value(6))
+                .andExpect(jsonPath("$[0].pagamentos.length()").value(1))
+                .andExpect(jsonPath("$[1].pedidoId").value(4))
+                .andExpect(jsonPath("$[1].pagamentos.length()").value(2))
+                .andExpect(jsonPath("$[2].pedidoId").value(99))
+                .andExpect(jsonPath("$[2].pagamentos.length()").value(0));
+    }
+
+    @Test
+    public void getByPedidoIdsShouldReturnBadRequestWhenTooManyIds() throws Exception {
+
+        List<Long> ids = LongStream.rangeClosed(1, PagamentoService.MAX_PEDIDO_IDS + 1).boxed().toList();
+
+        mockMvc.perform(post("/pagamentos/by-pedidos")
+                        .content(objectMapper.writeValueAsString(ids))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void patchStatusShouldReturnBadRequestWhenTargetIsCriado() throws Exception {
+
+        mockMvc.perform(patch("/pagamentos/status")
+                        .content("{\"ids\": [1, 2], \"status\": \"CRIADO\"}")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void patchStatusShouldReturnUnprocessableEntityWhenIdsAreMissing() throws Exception {
+
+        mockMvc.perform(patch("/pagamentos/status")
+                        .content("{\"ids\": [], \"status\": \"CONFIRMADO\"}")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.errors[0].fieldName").value("ids"));
+    }
 }
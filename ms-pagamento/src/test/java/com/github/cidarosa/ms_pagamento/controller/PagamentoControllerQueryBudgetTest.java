@@ -0,0 +1,167 @@
+package com.github.cidarosa.ms_pagamento.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.cidarosa.ms_pagamento.tests.Factory;
+import com.github.cidarosa.sqltrace.tests.QueryCount;
+import com.github.cidarosa.sqltrace.tests.QueryCounter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// orçamento de SQL por endpoint - falha o build em regressões N+1
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+public class PagamentoControllerQueryBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private QueryCounter queryCounter;
+    private Long existingId;
+
+    @BeforeEach
+    void setup() throws Exception {
+        queryCounter = new QueryCounter(entityManagerFactory, entityManager);
+        existingId = 1L;
+    }
+
+    @Test
+    public void getAllShouldStayWithinBudget() throws Exception {
+
+        QueryCount count = queryCounter.measure(() -> mockMvc.perform(get("/pagamentos")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk()));
+
+        // projeção em PagamentoDTO - nenhuma entidade gerenciada
+        count.assertStatementsAtMost(1)
+                .assertEntityLoadsAtMost(0)
+                .assertRowsAtMost(6);
+    }
+
+    @Test
+    public void exportShouldStayWithinBudget() throws Exception {
+
+        QueryCount count = queryCounter.measure(() -> {
+            MvcResult result = mockMvc.perform(get("/pagamentos/export")
+                            .accept(MediaType.APPLICATION_NDJSON))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk());
+        });
+
+        count.assertStatementsAtMost(1)
+                .assertEntityLoadsAtMost(0);
+    }
+
+    @Test
+    public void getByIdShouldStayWithinBudget() throws Exception {
+
+        QueryCount count = queryCounter.measure(() -> mockMvc.perform(get("/pagamentos/{id}", existingId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk()));
+
+        count.assertStatementsAtMost(1)
+                .assertEntityLoadsAtMost(1);
+    }
+
+    @Test
+    public void conditionalGetByIdShouldNotLoadEntity() throws Exception {
+
+        QueryCount count = queryCounter.measure(() -> mockMvc.perform(get("/pagamentos/{id}", existingId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified()));
+
+        // só o SELECT da versão
+        count.assertStatementsAtMost(1)
+                .assertEntityLoadsAtMost(0);
+    }
+
+    @Test
+    public void createShouldStayWithinBudget() throws Exception {
+
+        String jsonRequestBody = objectMapper.writeValueAsString(Factory.createNewPagamentoDTO());
+
+        QueryCount count = queryCounter.measure(() -> mockMvc.perform(post("/pagamentos")
+                        .content(jsonRequestBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated()));
+
+        count.assertStatementsAtMost(1)
+                .assertEntityLoadsAtMost(0);
+    }
+
+    @Test
+    public void updateShouldStayWithinBudget() throws Exception {
+
+        String jsonRequestBody = objectMapper.writeValueAsString(Factory.createPagamentoDTO());
+
+        QueryCount count = queryCounter.measure(() -> mockMvc.perform(put("/pagamentos/{id}", existingId)
+                        .content(jsonRequestBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk()));
+
+        // select + update
+        count.assertStatementsAtMost(2)
+                .assertEntityLoadsAtMost(1);
+    }
+
+    @Test
+    public void deleteShouldStayWithinBudget() throws Exception {
+
+        QueryCount count = queryCounter.measure(() -> mockMvc.perform(delete("/pagamentos/{id}", existingId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNoContent()));
+
+        // select + delete
+        count.assertStatementsAtMost(2)
+                .assertEntityLoadsAtMost(1);
+    }
+
+    @Test
+    public void getByPedidoIdsShouldUseOneQueryPerChunk() throws Exception {
+
+        List<Long> ids = LongStream.rangeClosed(1, 250).boxed().toList();
+        String jsonRequestBody = objectMapper.writeValueAsString(ids);
+
+        QueryCount count = queryCounter.measure(() -> mockMvc.perform(post("/pagamentos/by-pedidos")
+                        .content(jsonRequestBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk()));
+
+        // 250 ids em chunks de 100 - 3 SELECTs, só as linhas dos pedidos informados
+        count.assertStatementsAtMost(3)
+                .assertEntityLoadsAtMost(0)
+                .assertRowsAtMost(6);
+    }
+}
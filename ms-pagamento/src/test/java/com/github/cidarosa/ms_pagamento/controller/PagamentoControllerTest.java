@@ -2,8 +2,11 @@ package com.github.cidarosa.ms_pagamento.controller;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.cidarosa.ms_pagamento.autorizacao.AutorizacaoQueue;
 import com.github.cidarosa.ms_pagamento.dto.PagamentoDTO;
+import com.github.cidarosa.ms_pagamento.idempotency.IdempotencyStore;
 import com.github.cidarosa.ms_pagamento.service.PagamentoService;
+import com.github.cidarosa.ms_pagamento.service.ReceitaService;
 import com.github.cidarosa.ms_pagamento.service.exceptions.ResourceNotFoundException;
 import com.github.cidarosa.ms_pagamento.tests.Factory;
 import org.junit.jupiter.api.BeforeEach;
@@ -37,6 +40,15 @@ public class PagamentoControllerTest {
     @MockitoBean
     private PagamentoService service;
 
+    @MockitoBean
+    private IdempotencyStore idempotencyStore;
+
+    @MockitoBean
+    private ReceitaService receitaService;
+
+    @MockitoBean
+    private AutorizacaoQueue autorizacao;
+
     private PagamentoDTO dto;
     private Long existingId;
     private Long nonExistingId;
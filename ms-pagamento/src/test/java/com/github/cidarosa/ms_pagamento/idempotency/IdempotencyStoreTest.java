@@ -0,0 +1,170 @@
+package com.github.cidarosa.ms_pagamento.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.cidarosa.ms_pagamento.service.exceptions.IdempotencyKeyInProgressException;
+import com.github.cidarosa.ms_pagamento.service.exceptions.IdempotencyKeyMismatchException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class IdempotencyStoreTest {
+
+    private IdempotencyStore store;
+    private AtomicInteger executions;
+    private Map<String, Object> request;
+
+    @BeforeEach
+    void setup() throws Exception {
+        store = new IdempotencyStore(new ObjectMapper(), new SimpleMeterRegistry(),
+                100, Duration.ofMinutes(1), Duration.ofSeconds(5));
+        executions = new AtomicInteger();
+        request = Map.of("valor", 32.25, "pedidoId", 1);
+    }
+
+    private StoredResponse create(String key, Object body) {
+        return store.execute(key, body, () -> Map.of("id", executions.incrementAndGet()),
+                result -> URI.create("/pagamentos/" + result.get("id")));
+    }
+
+    @Test
+    public void executeShouldReplayStoredResponseWhenKeyIsRepeated() {
+
+        StoredResponse first = create("k1", request);
+        StoredResponse second = create("k1", request);
+
+        Assertions.assertEquals(1, executions.get());
+        Assertions.assertFalse(first.isReplayed());
+        Assertions.assertTrue(second.isReplayed());
+        Assertions.assertEquals(first.getBody(), second.getBody());
+        Assertions.assertEquals(first.getLocation(), second.getLocation());
+    }
+
+    @Test
+    public void executeShouldThrowMismatchWhenKeyIsReusedWithOtherRequest() {
+
+        create("k1", request);
+
+        Assertions.assertThrows(IdempotencyKeyMismatchException.class,
+                () -> create("k1", Map.of("valor", 99.0, "pedidoId", 1)));
+    }
+
+    @Test
+    public void executeShouldRunActionOnceWhenDuplicatesAreConcurrent() throws Exception {
+
+        int threads = 8;
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<StoredResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> store.execute("k1", request, () -> {
+                    started.countDown();
+                    await(release);
+                    return Map.of("id", executions.incrementAndGet());
+                }, result -> URI.create("/pagamentos/" + result.get("id")))));
+            }
+            // a primeira requisição fica presa na ação; as demais esperam por ela
+            Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+            release.countDown();
+
+            String body = futures.get(0).get(5, TimeUnit.SECONDS).getBody();
+            for (Future<StoredResponse> future : futures) {
+                Assertions.assertEquals(body, future.get(5, TimeUnit.SECONDS).getBody());
+            }
+            Assertions.assertEquals(1, executions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void executeShouldThrowInProgressWhenOriginalDoesNotFinishInTime() throws Exception {
+
+        store = new IdempotencyStore(new ObjectMapper(), new SimpleMeterRegistry(),
+                100, Duration.ofMinutes(1), Duration.ofMillis(50));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> store.execute("k1", request, () -> {
+                started.countDown();
+                await(release);
+                return Map.of("id", 1);
+            }, result -> URI.create("/pagamentos/1")));
+            Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            Assertions.assertThrows(IdempotencyKeyInProgressException.class, () -> create("k1", request));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void executeShouldNotRunActionAgainWhenInFlightKeyOutlivesSizeLimit() throws Exception {
+
+        // uma resposta gravada por vez - as concluídas abaixo despejam umas às outras
+        store = new IdempotencyStore(new ObjectMapper(), new SimpleMeterRegistry(),
+                1, Duration.ofMinutes(1), Duration.ofMillis(50));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<StoredResponse> original = executor.submit(() -> store.execute("k1", request, () -> {
+                started.countDown();
+                await(release);
+                return Map.of("id", executions.incrementAndGet());
+            }, result -> URI.create("/pagamentos/" + result.get("id"))));
+            Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            for (int i = 0; i < 100; i++) {
+                create("outra-" + i, request);
+            }
+
+            // k1 continua em andamento - a repetição espera, não executa de novo
+            Assertions.assertThrows(IdempotencyKeyInProgressException.class, () -> create("k1", request));
+
+            release.countDown();
+            Assertions.assertFalse(original.get(5, TimeUnit.SECONDS).isReplayed());
+            // 100 outras chaves + k1 uma única vez
+            Assertions.assertEquals(101, executions.get());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void executeShouldReleaseKeyWhenActionFails() {
+
+        Assertions.assertThrows(IllegalStateException.class, () -> store.execute("k1", request,
+                () -> { throw new IllegalStateException("falha"); }, result -> URI.create("/")));
+
+        StoredResponse response = create("k1", request);
+
+        Assertions.assertFalse(response.isReplayed());
+        Assertions.assertEquals(1, executions.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
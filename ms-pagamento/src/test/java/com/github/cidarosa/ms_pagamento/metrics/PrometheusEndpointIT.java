@@ -0,0 +1,44 @@
+package com.github.cidarosa.ms_pagamento.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// contexto com exportação de métricas ligada - banco próprio para não interferir nos outros testes
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:metricsdb")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class PrometheusEndpointIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void prometheusShouldExposeHttpServiceDatabaseAndStatusMetrics() throws Exception {
+
+        mockMvc.perform(get("/pagamentos/{id}", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+                .andExpect(content().string(containsString("uri=\"/pagamentos/{id}\"")))
+                .andExpect(content().string(containsString("pagamento_service_seconds_count")))
+                .andExpect(content().string(containsString("method=\"getById\"")))
+                .andExpect(content().string(containsString("hikaricp_connections_active")))
+                .andExpect(content().string(containsString("hibernate_sessions_open_total")))
+                .andExpect(content().string(containsString("hibernate_second_level_cache_requests_total")))
+                .andExpect(content().string(containsString("region=\"pagamento\"")))
+                .andExpect(content().string(containsString("pagamento_status_transicoes_total{application=\"ms-pagamento\",status=\"CONFIRMADO\"}")));
+    }
+}
@@ -0,0 +1,109 @@
+package com.github.cidarosa.ms_pagamento.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.cidarosa.ms_pagamento.entity.OutboxEvento;
+import com.github.cidarosa.ms_pagamento.entity.Status;
+import com.github.cidarosa.ms_pagamento.repository.OutboxEventoRepository;
+import com.github.cidarosa.ms_pagamento.tests.PedidoStandIn;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+// banco próprio - o relay apaga linhas da outbox
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outboxdb",
+        "pagamento.outbox.relay.batch-size=2"
+})
+@Transactional
+public class OutboxRelayIT {
+
+    private static final PedidoStandIn pedido = start();
+
+    @Autowired
+    private OutboxRelay relay;
+
+    @Autowired
+    private OutboxEventoRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("pagamento.pedido-client.url", pedido::getUrl);
+    }
+
+    @BeforeEach
+    void setup() throws Exception {
+        pedido.reset();
+        for (long pedidoId = 1; pedidoId <= 3; pedidoId++) {
+            repository.save(new OutboxEvento(null, UUID.randomUUID(), pedidoId, pedidoId, Status.CONFIRMADO, Instant.now()));
+        }
+    }
+
+    @AfterAll
+    static void tearDown() {
+        pedido.close();
+    }
+
+    @Test
+    public void relayShouldDeliverEventsInOrderedBatchesAndDrainOutbox() throws Exception {
+
+        int entregues = relay.relay();
+
+        Assertions.assertEquals(3, entregues);
+        Assertions.assertEquals(0, repository.count());
+        // batch-size=2: dois POSTs, na ordem da outbox
+        Assertions.assertEquals(2, pedido.getRequests().size());
+        List<Long> pedidoIds = new ArrayList<>();
+        Set<UUID> eventoIds = new HashSet<>();
+        for (PedidoStandIn.Request request : pedido.getRequests()) {
+            Assertions.assertEquals("POST", request.method());
+            Assertions.assertEquals("/pedidos/status/bulk", request.path());
+            for (JsonNode evento : objectMapper.readTree(request.body())) {
+                Assertions.assertEquals("CONFIRMADO", evento.get("status").asText());
+                pedidoIds.add(evento.get("pedidoId").asLong());
+                eventoIds.add(UUID.fromString(evento.get("eventoId").asText()));
+            }
+        }
+        Assertions.assertEquals(List.of(1L, 2L, 3L), pedidoIds);
+        // deduplicação no ms-pedido pelo UUID do evento, não pelo id da outbox
+        Assertions.assertEquals(3, eventoIds.size());
+    }
+
+    @Test
+    public void relayShouldKeepEventsWhenPedidoFails() {
+
+        pedido.respondWith(503, "{}");
+
+        int entregues = relay.relay();
+
+        Assertions.assertEquals(0, entregues);
+        Assertions.assertEquals(3, repository.count());
+        Assertions.assertEquals(1, pedido.getRequests().size());
+    }
+
+    private static PedidoStandIn start() {
+        try {
+            return new PedidoStandIn();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
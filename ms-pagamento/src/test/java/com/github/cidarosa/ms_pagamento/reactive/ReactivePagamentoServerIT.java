@@ -0,0 +1,156 @@
+package com.github.cidarosa.ms_pagamento.reactive;
+
+import com.github.cidarosa.ms_pagamento.dto.PagamentoDTO;
+import com.github.cidarosa.ms_pagamento.entity.Status;
+import com.github.cidarosa.ms_pagamento.service.PagamentoService;
+import com.github.cidarosa.ms_pagamento.tests.Factory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+// servidor reativo em porta livre, sobre o banco carregado pelo import.sql;
+// banco próprio - o teste grava um pagamento pelo JPA e lê de volta pelo R2DBC
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reactivedb",
+        "pagamento.reactive.enabled=true",
+        "pagamento.reactive.port=0"
+})
+public class ReactivePagamentoServerIT {
+
+    @Autowired
+    private ReactivePagamentoServer server;
+
+    @Autowired
+    private PagamentoService service;
+
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        client = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + server.getPort())
+                .build();
+    }
+
+    @Test
+    public void getByIdShouldReturnPagamentoWithETagWhenIdExists() {
+
+        client.get().uri("/pagamentos/{id}", 1L)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"0\"")
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(1)
+                .jsonPath("$.valor").isEqualTo(35.55)
+                .jsonPath("$.status").isEqualTo("CRIADO")
+                .jsonPath("$.pedidoId").isEqualTo(5)
+                .jsonPath("$.version").doesNotExist();
+    }
+
+    @Test
+    public void getByIdShouldReturnNotModifiedWhenETagMatches() {
+
+        PagamentoDTO created = service.createPagamento(Factory.createNewPagamentoDTO());
+        String eTag = "\"" + created.getVersion() + "\"";
+
+        client.get().uri("/pagamentos/{id}", created.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals("ETag", eTag)
+                .expectBody().isEmpty();
+
+        // versão alterada - ETag antigo não vale mais
+        client.get().uri("/pagamentos/{id}", created.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"" + (created.getVersion() + 1) + "\"")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", eTag)
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(created.getId().intValue());
+    }
+
+    @Test
+    public void getByIdShouldReturnNotFoundWhenIfNoneMatchAndIdDoesNotExist() {
+
+        client.get().uri("/pagamentos/{id}", 1000L)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    public void getByIdShouldReturnNotFoundWhenIdDoesNotExist() {
+
+        client.get().uri("/pagamentos/{id}", 1000L)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(404)
+                .jsonPath("$.path").isEqualTo("/pagamentos/1000");
+    }
+
+    @Test
+    public void getByIdShouldReturnBadRequestWhenIdIsNotNumeric() {
+
+        client.get().uri("/pagamentos/abc")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void getByIdShouldSeePagamentoCreatedThroughJpa() {
+
+        PagamentoDTO created = service.createPagamento(Factory.createNewPagamentoDTO());
+
+        client.get().uri("/pagamentos/{id}", created.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(created.getId().intValue())
+                .jsonPath("$.status").isEqualTo(Status.CRIADO.name());
+    }
+
+    @Test
+    public void getAllShouldStreamJsonArrayOrderedById() {
+
+        List<PagamentoDTO> pagamentos = client.get().uri("/pagamentos")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+                .expectBodyList(PagamentoDTO.class)
+                .returnResult().getResponseBody();
+
+        Assertions.assertNotNull(pagamentos);
+        Assertions.assertTrue(pagamentos.size() >= 6);
+        for (int i = 1; i < pagamentos.size(); i++) {
+            Assertions.assertTrue(pagamentos.get(i - 1).getId() < pagamentos.get(i).getId());
+        }
+    }
+
+    @Test
+    public void getAllShouldStreamNdjsonFilteredByPedidoId() {
+
+        List<PagamentoDTO> pagamentos = client.get().uri("/pagamentos?pedidoId={pedidoId}", 4L)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(PagamentoDTO.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        Assertions.assertNotNull(pagamentos);
+        Assertions.assertEquals(List.of(4L, 5L), pagamentos.stream().map(PagamentoDTO::getId).toList());
+    }
+}
@@ -0,0 +1,137 @@
+package com.github.cidarosa.ms_pagamento.service;
+
+import com.github.cidarosa.ms_pagamento.dto.PagamentoDTO;
+import com.github.cidarosa.ms_pagamento.entity.Pagamento;
+import com.github.cidarosa.ms_pagamento.entity.Status;
+import com.github.cidarosa.ms_pagamento.repository.PagamentoRepository;
+import com.github.cidarosa.ms_pagamento.service.exceptions.ResourceNotFoundException;
+import com.github.cidarosa.ms_pagamento.tests.Factory;
+import com.github.cidarosa.sqltrace.tests.QueryCount;
+import com.github.cidarosa.sqltrace.tests.QueryCounter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// banco próprio - as escritas são commitadas para o cache de 2º nível ser atualizado
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:l2cachedb")
+public class PagamentoSecondLevelCacheIT {
+
+    @Autowired
+    private PagamentoService service;
+
+    @Autowired
+    private PagamentoRepository repository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private QueryCounter queryCounter;
+
+    @BeforeEach
+    void setup() {
+        queryCounter = new QueryCounter(entityManagerFactory, entityManager);
+    }
+
+    private Long novoPagamento(Status status) {
+        Pagamento pagamento = Factory.createPagamento();
+        pagamento.setId(null);
+        pagamento.setStatus(status);
+        return repository.save(pagamento).getId();
+    }
+
+    private PagamentoDTO alteracao(BigDecimal valor, Status status) {
+        Pagamento pagamento = Factory.createPagamento();
+        pagamento.setValor(valor);
+        pagamento.setStatus(status);
+        return new PagamentoDTO(pagamento);
+    }
+
+    private boolean emCache(Long id) {
+        return entityManagerFactory.getCache().contains(Pagamento.class, id);
+    }
+
+    @Test
+    public void getByIdShouldBeServedFromCacheAfterFirstRead() throws Exception {
+
+        Long id = novoPagamento(Status.CONFIRMADO);
+        entityManagerFactory.getCache().evict(Pagamento.class, id);
+
+        QueryCount primeira = queryCounter.measure(() -> service.getById(id));
+        QueryCount segunda = queryCounter.measure(() -> service.getById(id));
+
+        primeira.assertStatementsAtMost(1);
+        segunda.assertStatementsAtMost(0)
+                .assertEntityLoadsAtMost(0);
+        Assertions.assertTrue(emCache(id));
+    }
+
+    @Test
+    public void updatePagamentoShouldRefreshCachedEntry() {
+
+        Long id = novoPagamento(Status.CRIADO);
+        service.getById(id);
+
+        PagamentoDTO updated = service.updatePagamento(id, alteracao(BigDecimal.valueOf(99.90), Status.CONFIRMADO));
+
+        PagamentoDTO lido = service.getById(id);
+        Assertions.assertEquals(0, BigDecimal.valueOf(99.90).compareTo(lido.getValor()));
+        Assertions.assertEquals(Status.CONFIRMADO, lido.getStatus());
+        Assertions.assertEquals(updated.getVersion(), lido.getVersion());
+    }
+
+    @Test
+    public void updatePagamentoShouldNotEvictOtherPagamentos() {
+
+        Long outro = novoPagamento(Status.CONFIRMADO);
+        Long id = novoPagamento(Status.CRIADO);
+        service.getById(outro);
+
+        // status alterado: grava outbox e MERGE nativo da receita - native spaces limitam a invalidação
+        service.updatePagamento(id, alteracao(BigDecimal.valueOf(32.25), Status.CONFIRMADO));
+
+        Assertions.assertTrue(emCache(outro));
+    }
+
+    @Test
+    public void deletePagamentoShouldInvalidateCachedEntry() {
+
+        Long id = novoPagamento(Status.CANCELADO);
+        service.getById(id);
+
+        service.deletePagamento(id);
+
+        // READ_WRITE deixa um soft lock no lugar da entrada - a leitura vai ao banco
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> service.getById(id));
+    }
+
+    @Test
+    public void updateStatusShouldKeepCacheHitsForChangedAndOtherPagamentos() throws Exception {
+
+        Long outro = novoPagamento(Status.CONFIRMADO);
+        Long id = novoPagamento(Status.CRIADO);
+        service.getById(outro);
+        Long versao = service.getById(id).getVersion();
+
+        // alterado pela entidade - a região não é invalidada e a entrada alterada é atualizada
+        service.updateStatus(List.of(id), Status.CONFIRMADO);
+
+        QueryCount leituras = queryCounter.measure(() -> {
+            PagamentoDTO lido = service.getById(id);
+            Assertions.assertEquals(Status.CONFIRMADO, lido.getStatus());
+            Assertions.assertEquals(versao + 1, lido.getVersion());
+            service.getById(outro);
+        });
+        leituras.assertStatementsAtMost(0)
+                .assertEntityLoadsAtMost(0);
+    }
+}
@@ -1,5 +1,10 @@
 package com.github.cidarosa.ms_pagamento.service;
 
+import com.github.cidarosa.ms_pagamento.dto.PagamentoDTO;
+import com.github.cidarosa.ms_pagamento.dto.ReceitaStatsDTO;
+import com.github.cidarosa.ms_pagamento.entity.OutboxEvento;
+import com.github.cidarosa.ms_pagamento.entity.Status;
+import com.github.cidarosa.ms_pagamento.repository.OutboxEventoRepository;
 import com.github.cidarosa.ms_pagamento.repository.PagamentoRepository;
 import com.github.cidarosa.ms_pagamento.service.exceptions.ResourceNotFoundException;
 import org.junit.jupiter.api.Assertions;
@@ -9,6 +14,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
 @SpringBootTest // carrega o contexto
 @Transactional // Rollback no DB
 
@@ -18,6 +27,10 @@ public class PagamentoServiceIT {
     private PagamentoService service;
     @Autowired
     private PagamentoRepository repository;
+    @Autowired
+    private OutboxEventoRepository outboxRepository;
+    @Autowired
+    private ReceitaService receitaService;
 
     private Long existingId;
     private Long nonExistingId;
@@ -58,4 +71,81 @@ public class PagamentoServiceIT {
         Assertions.assertEquals(null, result.get(5).getNome());
 
     }
+
+    @Test
+    public void updatePagamentoShouldWriteOutboxEventWhenStatusChanges() {
+
+        PagamentoDTO dto = service.getById(existingId);
+        PagamentoDTO confirmado = new PagamentoDTO(null, dto.getValor(), dto.getNome(), dto.getNumeroDoCartao(),
+                dto.getValidade(), dto.getCodigoDeSeguranca(), Status.CONFIRMADO, dto.getPedidoId(),
+                dto.getFormaDePagamentoId(), null);
+
+        service.updatePagamento(existingId, confirmado);
+        // mesmo status - nenhum evento novo
+        service.updatePagamento(existingId, confirmado);
+
+        List<OutboxEvento> eventos = outboxRepository.findAll();
+        Assertions.assertEquals(1, eventos.size());
+        Assertions.assertEquals(existingId, eventos.get(0).getPagamentoId());
+        Assertions.assertEquals(dto.getPedidoId(), eventos.get(0).getPedidoId());
+        Assertions.assertEquals(Status.CONFIRMADO, eventos.get(0).getStatus());
+    }
+
+    @Test
+    public void updatePagamentoShouldKeepRevenueRollupInSyncWithStatus() {
+
+        LocalDate dia = LocalDate.of(2025, 4, 24);
+        List<String> groupBy = List.of(ReceitaService.DIA, ReceitaService.FORMA_DE_PAGAMENTO);
+        Assertions.assertTrue(receitaService.getStats(dia, dia, groupBy).isEmpty());
+
+        // pagamento 1: 35.55, dia 2025-04-24, forma 2
+        service.updatePagamento(existingId, comStatus(service.getById(existingId), Status.CONFIRMADO));
+
+        List<ReceitaStatsDTO> stats = receitaService.getStats(dia, dia, groupBy);
+        Assertions.assertEquals(1, stats.size());
+        Assertions.assertEquals(dia, stats.get(0).getDia());
+        Assertions.assertEquals(2L, stats.get(0).getFormaDePagamentoId());
+        Assertions.assertEquals(1L, stats.get(0).getQuantidade());
+        Assertions.assertEquals(0, BigDecimal.valueOf(35.55).compareTo(stats.get(0).getValorTotal()));
+
+        // estorno - sai da receita
+        service.updatePagamento(existingId, comStatus(service.getById(existingId), Status.CANCELADO));
+
+        stats = receitaService.getStats(dia, dia, groupBy);
+        Assertions.assertEquals(0L, stats.get(0).getQuantidade());
+        Assertions.assertEquals(0, BigDecimal.ZERO.compareTo(stats.get(0).getValorTotal()));
+    }
+
+    @Test
+    public void reconstruirShouldMatchIncrementalRollup() {
+
+        service.updatePagamento(existingId, comStatus(service.getById(existingId), Status.CONFIRMADO));
+        service.updatePagamento(2L, comStatus(service.getById(2L), Status.CONFIRMADO));
+        service.deletePagamento(6L);
+
+        LocalDate from = LocalDate.of(2025, 4, 1);
+        LocalDate to = LocalDate.of(2025, 4, 30);
+        List<String> groupBy = List.of(ReceitaService.FORMA_DE_PAGAMENTO);
+        List<ReceitaStatsDTO> incremental = receitaService.getStats(from, to, groupBy);
+
+        receitaService.reconstruir();
+        List<ReceitaStatsDTO> reconstruido = receitaService.getStats(from, to, groupBy);
+
+        // forma 1: o único CONFIRMADO (id 6) foi apagado; forma 2: ids 1 e 2
+        Assertions.assertEquals(2, incremental.size());
+        Assertions.assertEquals(0L, incremental.get(0).getQuantidade());
+        Assertions.assertEquals(2L, incremental.get(1).getQuantidade());
+        Assertions.assertEquals(0, BigDecimal.valueOf(131.05).compareTo(incremental.get(1).getValorTotal()));
+        // o recálculo não gera linhas zeradas
+        Assertions.assertEquals(1, reconstruido.size());
+        Assertions.assertEquals(2L, reconstruido.get(0).getFormaDePagamentoId());
+        Assertions.assertEquals(incremental.get(1).getQuantidade(), reconstruido.get(0).getQuantidade());
+        Assertions.assertEquals(0, incremental.get(1).getValorTotal().compareTo(reconstruido.get(0).getValorTotal()));
+    }
+
+    private static PagamentoDTO comStatus(PagamentoDTO dto, Status status) {
+        return new PagamentoDTO(null, dto.getValor(), dto.getNome(), dto.getNumeroDoCartao(),
+                dto.getValidade(), dto.getCodigoDeSeguranca(), status, dto.getPedidoId(),
+                dto.getFormaDePagamentoId(), null);
+    }
 }
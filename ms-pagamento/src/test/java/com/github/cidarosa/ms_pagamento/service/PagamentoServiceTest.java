@@ -1,7 +1,10 @@
 package com.github.cidarosa.ms_pagamento.service;
 
+import com.github.cidarosa.ms_pagamento.client.PedidoClient;
 import com.github.cidarosa.ms_pagamento.dto.PagamentoDTO;
 import com.github.cidarosa.ms_pagamento.entity.Pagamento;
+import com.github.cidarosa.ms_pagamento.metrics.PagamentoMetrics;
+import com.github.cidarosa.ms_pagamento.repository.OutboxEventoRepository;
 import com.github.cidarosa.ms_pagamento.repository.PagamentoRepository;
 import com.github.cidarosa.ms_pagamento.service.exceptions.ResourceNotFoundException;
 import com.github.cidarosa.ms_pagamento.tests.Factory;
@@ -28,6 +31,18 @@ public class PagamentoServiceTest {
     @Mock
     private PagamentoRepository repository;
 
+    @Mock
+    private PagamentoMetrics metrics;
+
+    @Mock
+    private OutboxEventoRepository outboxRepository;
+
+    @Mock
+    private PedidoClient pedidoClient;
+
+    @Mock
+    private ReceitaService receitaService;
+
     private Long existingId;
     private Long nonExistingId;
 
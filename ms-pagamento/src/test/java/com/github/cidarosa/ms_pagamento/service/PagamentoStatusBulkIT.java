@@ -0,0 +1,132 @@
+package com.github.cidarosa.ms_pagamento.service;
+
+import com.github.cidarosa.ms_pagamento.dto.PagamentoStatusBulkResultDTO;
+import com.github.cidarosa.ms_pagamento.dto.ReceitaStatsDTO;
+import com.github.cidarosa.ms_pagamento.entity.OutboxEvento;
+import com.github.cidarosa.ms_pagamento.entity.Pagamento;
+import com.github.cidarosa.ms_pagamento.entity.Status;
+import com.github.cidarosa.ms_pagamento.repository.OutboxEventoRepository;
+import com.github.cidarosa.ms_pagamento.repository.PagamentoRepository;
+import com.github.cidarosa.ms_pagamento.service.exceptions.ParametroInvalidoException;
+import com.github.cidarosa.ms_pagamento.tests.Factory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+// banco próprio - cada chunk é gravado na sua transação (REQUIRES_NEW), sem rollback do teste
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:statusbulkdb")
+public class PagamentoStatusBulkIT {
+
+    // dia e forma de pagamento do Factory
+    private static final LocalDate DIA = LocalDate.of(2025, 4, 25);
+    private static final Long FORMA = 2L;
+
+    @Autowired
+    private PagamentoService service;
+
+    @Autowired
+    private ReceitaService receitaService;
+
+    @Autowired
+    private PagamentoRepository repository;
+
+    @Autowired
+    private OutboxEventoRepository outboxRepository;
+
+    private Long novoPagamento(Status status) {
+        Pagamento pagamento = Factory.createPagamento();
+        pagamento.setId(null);
+        pagamento.setStatus(status);
+        return repository.save(pagamento).getId();
+    }
+
+    private ReceitaStatsDTO receita() {
+        return receitaService.getStats(DIA, DIA, List.of(ReceitaService.FORMA_DE_PAGAMENTO)).stream()
+                .filter(r -> FORMA.equals(r.getFormaDePagamentoId()))
+                .findFirst()
+                .orElse(new ReceitaStatsDTO(null, FORMA, 0L, BigDecimal.ZERO));
+    }
+
+    @Test
+    public void updateStatusShouldChangeOnlyPagamentosInAllowedSourceStatus() {
+
+        List<Long> criados = List.of(novoPagamento(Status.CRIADO), novoPagamento(Status.CRIADO),
+                novoPagamento(Status.CRIADO));
+        Long cancelado = novoPagamento(Status.CANCELADO);
+        Long inexistente = 100_000L;
+        List<Long> ids = new ArrayList<>(criados);
+        ids.add(cancelado);
+        ids.add(inexistente);
+        long eventosAntes = outboxRepository.count();
+        ReceitaStatsDTO receitaAntes = receita();
+
+        PagamentoStatusBulkResultDTO result = service.updateStatus(ids, Status.CONFIRMADO);
+
+        Assertions.assertEquals(criados, result.getAlterados());
+        Assertions.assertEquals(List.of(cancelado, inexistente), result.getRejeitados());
+        for (Long id : criados) {
+            Pagamento pagamento = repository.findById(id).orElseThrow();
+            Assertions.assertEquals(Status.CONFIRMADO, pagamento.getStatus());
+            Assertions.assertEquals(1L, pagamento.getVersion());
+        }
+        Assertions.assertEquals(Status.CANCELADO, repository.findById(cancelado).orElseThrow().getStatus());
+
+        // um evento de outbox por pagamento alterado
+        List<OutboxEvento> eventos = outboxRepository.findAll();
+        Assertions.assertEquals(eventosAntes + 3, eventos.size());
+        Assertions.assertTrue(eventos.stream()
+                .filter(e -> criados.contains(e.getPagamentoId()))
+                .allMatch(e -> e.getStatus() == Status.CONFIRMADO));
+        // eventoId gerado por linha no INSERT ... SELECT
+        Assertions.assertEquals(eventos.size(), eventos.stream().map(OutboxEvento::getEventoId).distinct()
+                .filter(Objects::nonNull).count());
+
+        // 3 x 32.25 entram na receita do dia
+        ReceitaStatsDTO receitaDepois = receita();
+        Assertions.assertEquals(receitaAntes.getQuantidade() + 3, receitaDepois.getQuantidade());
+        Assertions.assertEquals(0, receitaAntes.getValorTotal().add(BigDecimal.valueOf(96.75))
+                .compareTo(receitaDepois.getValorTotal()));
+    }
+
+    @Test
+    public void updateStatusShouldReverseRevenueWhenConfirmedPagamentosAreCancelled() {
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < PagamentoService.STATUS_CHUNK_SIZE + 2; i++) {
+            ids.add(novoPagamento(Status.CRIADO));
+        }
+        service.updateStatus(ids, Status.CONFIRMADO);
+        ReceitaStatsDTO receitaAntes = receita();
+
+        // mais de um chunk; ids repetidos contam uma vez
+        List<Long> comRepetidos = new ArrayList<>(ids);
+        comRepetidos.add(ids.get(0));
+        PagamentoStatusBulkResultDTO result = service.updateStatus(comRepetidos, Status.CANCELADO);
+
+        Assertions.assertEquals(ids, result.getAlterados());
+        Assertions.assertTrue(result.getRejeitados().isEmpty());
+        ReceitaStatsDTO receitaDepois = receita();
+        Assertions.assertEquals(receitaAntes.getQuantidade() - ids.size(), receitaDepois.getQuantidade());
+        Assertions.assertEquals(0, receitaAntes.getValorTotal()
+                .subtract(BigDecimal.valueOf(32.25).multiply(BigDecimal.valueOf(ids.size())))
+                .compareTo(receitaDepois.getValorTotal()));
+
+        // CANCELADO é final
+        result = service.updateStatus(ids.subList(0, 1), Status.CONFIRMADO);
+        Assertions.assertTrue(result.getAlterados().isEmpty());
+    }
+
+    @Test
+    public void updateStatusShouldRejectCriadoAsTargetStatus() {
+
+        Assertions.assertThrows(ParametroInvalidoException.class,
+                () -> service.updateStatus(List.of(1L), Status.CRIADO));
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.cidarosa.ms_pagamento.sqltrace;
+
+import com.github.cidarosa.sqltrace.RequestIdFilter;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// SqlTraceConfig do módulo sqltrace (@Import) - banco próprio, agregados contados a partir do SQL deste contexto
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:sqltracedb")
+@AutoConfigureMockMvc
+public class SqlTraceEndpointIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void sqltraceShouldAggregateStatementsExecutedByRequests() throws Exception {
+
+        mockMvc.perform(delete("/actuator/sqltrace"))
+                .andExpect(status().isNoContent());
+        // o pagamento pode estar no cache de 2º nível - a leitura tem de ir ao banco
+        entityManagerFactory.getCache().evictAll();
+
+        mockMvc.perform(get("/pagamentos/{id}", 1L)
+                        .header(RequestIdFilter.HEADER, "req-123")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(RequestIdFilter.HEADER, "req-123"));
+
+        mockMvc.perform(get("/actuator/sqltrace"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.statements[*].fingerprint",
+                        hasItem(matchesPattern("select .* from tb_pagamento p1_0 where p1_0\\.id=\\?"))))
+                .andExpect(jsonPath("$.statements[0].count").value(1))
+                .andExpect(jsonPath("$.statements[0].rows").value(1))
+                .andExpect(jsonPath("$.sampleRate").value(0.1));
+
+        mockMvc.perform(get("/actuator/sqltrace").param("limit", "1"))
+                .andExpect(jsonPath("$.statements", hasSize(1)));
+    }
+
+    @Test
+    public void requestIdShouldBeGeneratedWhenHeaderIsMissing() throws Exception {
+
+        mockMvc.perform(get("/pagamentos/{id}", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(RequestIdFilter.HEADER, matchesPattern("[0-9a-f-]{36}")));
+    }
+}
@@ -5,6 +5,7 @@ import com.github.cidarosa.ms_pagamento.entity.Pagamento;
 import com.github.cidarosa.ms_pagamento.entity.Status;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 
 public class Factory {
 
@@ -12,7 +13,7 @@ public class Factory {
         Pagamento pagamento = new Pagamento(1L, BigDecimal.valueOf(32.25),
                 "Jon Snow", "2365412478964521",
                 "07/32", "585", Status.CRIADO,
-                1l, 2l);
+                1l, 2l, LocalDate.of(2025, 4, 25), null);
         return pagamento;
     }
 
@@ -0,0 +1,83 @@
+package com.github.cidarosa.ms_pagamento.tests;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// ms-pedido falso em uma porta livre - grava as requisições e responde com o status,
+// o corpo e a latência configurados (para simular lentidão e erros)
+public class PedidoStandIn implements AutoCloseable {
+
+    public record Request(String method, String path, String body) {
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final List<Request> requests = new CopyOnWriteArrayList<>();
+
+    private volatile int status = 200;
+    private volatile String responseBody = "{}";
+    private volatile Duration latency = Duration.ZERO;
+
+    public PedidoStandIn() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String getUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public List<Request> getRequests() {
+        return requests;
+    }
+
+    public void respondWith(int status, String responseBody) {
+        this.status = status;
+        this.responseBody = responseBody;
+    }
+
+    public void delay(Duration latency) {
+        this.latency = latency;
+    }
+
+    public void reset() {
+        requests.clear();
+        respondWith(200, "{}");
+        delay(Duration.ZERO);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        requests.add(new Request(exchange.getRequestMethod(), exchange.getRequestURI().getPath(), body));
+        try {
+            Thread.sleep(latency.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        byte[] response = responseBody.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, response.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -1,9 +1,14 @@
 package com.github.cidarosa.ms_pedido;
 
+import com.github.cidarosa.sqltrace.SqlTraceConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@Import(SqlTraceConfig.class)
 public class MsPedidoApplication {
 
 	public static void main(String[] args) {
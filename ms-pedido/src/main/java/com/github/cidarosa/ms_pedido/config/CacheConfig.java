@@ -0,0 +1,74 @@
+package com.github.cidarosa.ms_pedido.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.cidarosa.ms_pedido.dto.PedidoDTO;
+import com.github.cidarosa.ms_pedido.entities.Status;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PEDIDOS = "pedidos";
+
+    private static final Set<Status> FINALIZADOS = EnumSet.of(Status.ENTREGUE, Status.CANCELADO);
+
+    @Value("${pedido.cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${pedido.cache.ttl-em-andamento:5s}")
+    private Duration ttlEmAndamento;
+
+    @Value("${pedido.cache.ttl-finalizado:1h}")
+    private Duration ttlFinalizado;
+
+    @Bean
+    public CacheManager cacheManager() {
+
+        CaffeineCacheManager caffeine = new CaffeineCacheManager();
+        caffeine.registerCustomCache(PEDIDOS, Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new StatusExpiry())
+                .recordStats()
+                .build());
+        // put/evict só depois do commit - rollback não deixa DTO inválido no cache
+        return new TransactionAwareCacheManagerProxy(caffeine);
+    }
+
+    // TTL definido pelo status do pedido no momento em que entra (ou é atualizado) no cache
+    private class StatusExpiry implements Expiry<Object, Object> {
+
+        @Override
+        public long expireAfterCreate(Object key, Object value, long currentTime) {
+            return ttl(value);
+        }
+
+        @Override
+        public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+            return ttl(value);
+        }
+
+        @Override
+        public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        private long ttl(Object value) {
+            if (value instanceof PedidoDTO dto && FINALIZADOS.contains(dto.getStatus())) {
+                return ttlFinalizado.toNanos();
+            }
+            return ttlEmAndamento.toNanos();
+        }
+    }
+}
@@ -1,14 +1,26 @@
 package com.github.cidarosa.ms_pedido.controller;
 
+import com.github.cidarosa.ms_pagamento.dto.PagamentoStatusEventoDTO;
+import com.github.cidarosa.ms_pedido.dto.PedidoBatchResultDTO;
 import com.github.cidarosa.ms_pedido.dto.PedidoDTO;
+import com.github.cidarosa.ms_pedido.dto.PedidoPageDTO;
+import com.github.cidarosa.ms_pedido.dto.PedidoPatchDTO;
+import com.github.cidarosa.ms_pedido.dto.PedidoStatusBulkResultDTO;
+import com.github.cidarosa.ms_pedido.dto.StatusDTO;
+import com.github.cidarosa.ms_pedido.entities.Status;
 import com.github.cidarosa.ms_pedido.service.PedidoService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -19,17 +31,41 @@ public class PedidoController {
     private PedidoService service;
 
     @GetMapping
-    public ResponseEntity<List<PedidoDTO>> getAllPedidos(){
+    public ResponseEntity<PedidoPageDTO> getAllPedidos(@RequestParam(required = false) Long after,
+                                                       @RequestParam(required = false) Integer limit){
 
-        List<PedidoDTO> list = service.findAllPedidos();
-        return ResponseEntity.ok(list);
+        PedidoPageDTO page = service.findAllPedidos(after, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    // filtros opcionais (cpf, status, data entre from e to) com a mesma paginação por cursor do GET /pedidos
+    @GetMapping("/search")
+    public ResponseEntity<PedidoPageDTO> searchPedidos(@RequestParam(required = false) String cpf,
+                                                       @RequestParam(required = false) Status status,
+                                                       @RequestParam(required = false)
+                                                       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                       @RequestParam(required = false)
+                                                       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                       @RequestParam(required = false) Long after,
+                                                       @RequestParam(required = false) Integer limit){
+
+        PedidoPageDTO page = service.searchPedidos(cpf, status, from, to, after, limit);
+        return ResponseEntity.ok(page);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<PedidoDTO> getById(@PathVariable Long id){
+    public ResponseEntity<PedidoDTO> getById(@PathVariable Long id, WebRequest request){
+
+        // If-None-Match: compara só a versão, sem carregar o pedido
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            String eTag = eTag(service.findVersion(id));
+            if (request.checkNotModified(eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+        }
 
         PedidoDTO dto = service.findById(id);
-        return ResponseEntity.ok(dto);
+        return ResponseEntity.ok().eTag(eTag(dto.getVersion())).body(dto);
     }
 
     @PostMapping
@@ -45,6 +81,22 @@ public class PedidoController {
         return ResponseEntity.created(uri).body(dto);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<PedidoBatchResultDTO>> createPedidos(@RequestBody List<PedidoDTO> dtos){
+
+        List<PedidoBatchResultDTO> results = service.savePedidos(dtos);
+        return ResponseEntity.ok(results);
+    }
+
+    // entregas do relay da outbox do ms-pagamento - reentregas são descartadas pelo eventoId
+    @PostMapping("/status/bulk")
+    public ResponseEntity<PedidoStatusBulkResultDTO> aplicarEventosDePagamento(
+            @RequestBody List<@Valid PagamentoStatusEventoDTO> eventos){
+
+        PedidoStatusBulkResultDTO result = service.aplicarEventosDePagamento(eventos);
+        return ResponseEntity.ok(result);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<PedidoDTO> updatePedido(@PathVariable Long id,
                                                   @RequestBody @Valid PedidoDTO dto){
@@ -52,6 +104,32 @@ public class PedidoController {
         return  ResponseEntity.ok(dto);
     }
 
+    @PatchMapping("/{id}")
+    public ResponseEntity<PedidoDTO> patchPedido(@PathVariable Long id,
+                                                 @RequestBody @Valid PedidoPatchDTO dto){
+        PedidoDTO result = service.patchPedido(id, dto);
+        return ResponseEntity.ok(result);
+    }
+
+    // só o status, sem carregar o pedido nem os itens
+    @GetMapping("/{id}/status")
+    public ResponseEntity<StatusDTO> getStatus(@PathVariable Long id){
+        return ResponseEntity.ok(new StatusDTO(service.findStatus(id)));
+    }
+
+    // só o status, validado pela tabela de transições do enum - 409 se a transição não for permitida
+    @PatchMapping("/{id}/status")
+    public ResponseEntity<Void> updateStatus(@PathVariable Long id,
+                                             @RequestBody @Valid StatusDTO dto){
+        service.updateStatus(id, dto.getStatus());
+        return ResponseEntity.noContent().build();
+    }
+
+    // ETag forte a partir da coluna version
+    private static String eTag(Long version) {
+        return "\"" + version + "\"";
+    }
+
 
 
 
@@ -3,10 +3,13 @@ package com.github.cidarosa.ms_pedido.controller.handlers;
 
 import com.github.cidarosa.ms_pagamento.controller.handlers.dto.CustomErrorDTO;
 import com.github.cidarosa.ms_pagamento.controller.handlers.dto.ValidationErrorDTO;
-import com.github.cidarosa.ms_pagamento.service.exceptions.ResourceNotFoundException;
+import com.github.cidarosa.ms_pedido.service.exceptions.ParametroInvalidoException;
+import com.github.cidarosa.ms_pedido.service.exceptions.ResourceNotFoundException;
+import com.github.cidarosa.ms_pedido.service.exceptions.TransicaoDeStatusInvalidaException;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -26,6 +29,34 @@ public class ControllerExceptionHandler {
         return ResponseEntity.status(status).body(err);
     }
 
+    @ExceptionHandler(TransicaoDeStatusInvalidaException.class)
+    public ResponseEntity<CustomErrorDTO> handleTransicaoDeStatusInvalida(TransicaoDeStatusInvalidaException e,
+                                                                          HttpServletRequest request) {
+        HttpStatus status = HttpStatus.CONFLICT; //409
+        CustomErrorDTO err = new CustomErrorDTO(Instant.now(), status.value(),
+                e.getMessage(), request.getRequestURI());
+        return ResponseEntity.status(status).body(err);
+    }
+
+    @ExceptionHandler(ParametroInvalidoException.class)
+    public ResponseEntity<CustomErrorDTO> handleParametroInvalido(ParametroInvalidoException e,
+                                                                  HttpServletRequest request) {
+        HttpStatus status = HttpStatus.BAD_REQUEST; //400
+        CustomErrorDTO err = new CustomErrorDTO(Instant.now(), status.value(),
+                e.getMessage(), request.getRequestURI());
+        return ResponseEntity.status(status).body(err);
+    }
+
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<CustomErrorDTO> handleCannotCreateTransaction(CannotCreateTransactionException e,
+                                                                        HttpServletRequest request) {
+        // pool de conexões esgotado (connection-timeout) - o cliente pode tentar de novo
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE; //503
+        CustomErrorDTO err = new CustomErrorDTO(Instant.now(), status.value(),
+                "Serviço sobrecarregado. Tente novamente mais tarde", request.getRequestURI());
+        return ResponseEntity.status(status).body(err);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<CustomErrorDTO> methodArgumentNotValidation(MethodArgumentNotValidException e,
                                                                       HttpServletRequest request) {
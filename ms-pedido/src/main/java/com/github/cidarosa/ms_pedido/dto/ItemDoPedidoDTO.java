@@ -34,4 +34,11 @@ public class ItemDoPedidoDTO {
         descricao = entity.getDescricao();
         valorUnitario = entity.getValorUnitario();
     }
+
+    public ItemDoPedidoDTO(PedidoItemLinhaDTO linha) {
+        id = linha.getItemId();
+        quantidade = linha.getQuantidade();
+        descricao = linha.getDescricao();
+        valorUnitario = linha.getValorUnitario();
+    }
 }
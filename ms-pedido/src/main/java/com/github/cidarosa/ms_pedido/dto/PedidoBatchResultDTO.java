@@ -0,0 +1,30 @@
+package com.github.cidarosa.ms_pedido.dto;
+
+import com.github.cidarosa.ms_pagamento.controller.handlers.dto.FieldMessageDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+public class PedidoBatchResultDTO {
+
+    // posição do pedido na lista recebida
+    private Integer index;
+    // id gerado - null quando o pedido foi rejeitado
+    private Long id;
+
+    private List<FieldMessageDTO> errors = new ArrayList<>();
+
+    public static PedidoBatchResultDTO created(int index, Long id) {
+        return new PedidoBatchResultDTO(index, id, new ArrayList<>());
+    }
+
+    public static PedidoBatchResultDTO rejected(int index, List<FieldMessageDTO> errors) {
+        return new PedidoBatchResultDTO(index, null, errors);
+    }
+}
@@ -1,5 +1,7 @@
 package com.github.cidarosa.ms_pedido.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.github.cidarosa.ms_pedido.entities.ItemDoPedido;
 import com.github.cidarosa.ms_pedido.entities.Pedido;
 import com.github.cidarosa.ms_pedido.entities.Status;
@@ -7,11 +9,13 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
@@ -37,7 +41,18 @@ public class PedidoDTO {
     @Enumerated(EnumType.STRING)
     private Status status;
 
-    private List<@Valid ItemDoPedidoDTO> itens = new ArrayList<>();
+    // calculados no servidor - ignorados na entrada
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private BigDecimal valorTotal;
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Integer quantidadeDeItens;
+
+    @NotNull(message = "Itens requeridos")
+    private List<@Valid @NotNull(message = "Item requerido") ItemDoPedidoDTO> itens = new ArrayList<>();
+
+    // só para o ETag - não faz parte do JSON
+    @JsonIgnore
+    private Long version;
 
     public PedidoDTO(Pedido entity) {
         id = entity.getId();
@@ -45,10 +60,25 @@ public class PedidoDTO {
         cpf = entity.getCpf();
         data = entity.getData();
         status = entity.getStatus();
+        valorTotal = entity.getValorTotal();
+        quantidadeDeItens = entity.getQuantidadeDeItens();
+        version = entity.getVersion();
 
         for (ItemDoPedido item : entity.getItens()) {
             ItemDoPedidoDTO itemDTO = new ItemDoPedidoDTO(item);
             itens.add(itemDTO);
         }
     }
+
+    // só os campos do pedido - os itens são acrescentados por quem agrupa as linhas
+    public PedidoDTO(PedidoItemLinhaDTO linha) {
+        id = linha.getId();
+        nome = linha.getNome();
+        cpf = linha.getCpf();
+        data = linha.getData();
+        status = linha.getStatus();
+        valorTotal = linha.getValorTotal();
+        quantidadeDeItens = linha.getQuantidadeDeItens();
+        version = linha.getVersion();
+    }
 }
@@ -0,0 +1,29 @@
+package com.github.cidarosa.ms_pedido.dto;
+
+import com.github.cidarosa.ms_pedido.entities.Status;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// uma linha do LEFT JOIN pedido x itens, projetada direto do JPQL (PedidoRepository.findLinhasByIdIn);
+// campos do item nulos para pedido sem itens
+@AllArgsConstructor
+@Getter
+public class PedidoItemLinhaDTO {
+
+    private Long id;
+    private String nome;
+    private String cpf;
+    private LocalDate data;
+    private Status status;
+    private BigDecimal valorTotal;
+    private Integer quantidadeDeItens;
+    private Long version;
+
+    private Long itemId;
+    private Integer quantidade;
+    private String descricao;
+    private BigDecimal valorUnitario;
+}
@@ -0,0 +1,19 @@
+package com.github.cidarosa.ms_pedido.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+public class PedidoPageDTO {
+
+    private List<PedidoDTO> content = new ArrayList<>();
+
+    // id a ser enviado em ?after= para buscar a próxima página - null na última
+    private Long nextCursor;
+}
@@ -0,0 +1,24 @@
+package com.github.cidarosa.ms_pedido.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// campos nulos (ausentes no JSON) não são alterados
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+public class PedidoPatchDTO {
+
+    @Size(min = 3, max = 100, message = "O nome deve ter entre 3 e 100 caracteres")
+    private String nome;
+
+    @Size(min = 11, max = 11, message = "CPF deve ter 11 caracteres - sem máscara")
+    private String cpf;
+
+    private List<@Valid ItemDoPedidoDTO> itens;
+}
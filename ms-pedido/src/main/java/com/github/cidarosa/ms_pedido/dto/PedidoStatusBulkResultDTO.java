@@ -0,0 +1,15 @@
+package com.github.cidarosa.ms_pedido.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+public class PedidoStatusBulkResultDTO {
+
+    private int recebidos;
+    private int duplicados;   // já aplicados em uma entrega anterior
+    private int atualizados;  // pedidos que mudaram de status
+}
@@ -1,6 +1,7 @@
 package com.github.cidarosa.ms_pedido.dto;
 
 import com.github.cidarosa.ms_pedido.entities.Status;
+import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -10,5 +11,6 @@ import lombok.NoArgsConstructor;
 @Getter
 public class StatusDTO {
 
+    @NotNull(message = "Status é requerido")
     private Status status;
 }
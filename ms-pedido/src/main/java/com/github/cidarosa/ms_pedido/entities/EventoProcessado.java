@@ -0,0 +1,26 @@
+package com.github.cidarosa.ms_pedido.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// eventos do ms-pagamento já aplicados - o relay entrega at-least-once, a PK descarta repetidos;
+// apagados depois de pedido.eventos.retencao (EventoProcessadoPurgeJob)
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode(of = "id")
+
+@Entity
+@Table(name = "tb_evento_processado",
+        indexes = @Index(name = "idx_evento_processado_em", columnList = "processado_em"))
+public class EventoProcessado {
+
+    @Id
+    private UUID id;                  // eventoId (UUID) gerado na outbox do ms-pagamento
+    @Column(nullable = false)
+    private Instant processadoEm;     // base da retenção - indexado para o purge
+}
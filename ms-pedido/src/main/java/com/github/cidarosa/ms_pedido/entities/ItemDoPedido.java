@@ -16,7 +16,9 @@ import java.math.BigDecimal;
 public class ItemDoPedido {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // SEQUENCE (e não IDENTITY) para permitir batch de INSERT no Hibernate
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_item_do_pedido")
+    @SequenceGenerator(name = "seq_item_do_pedido", sequenceName = "tb_item_do_pedido_seq", allocationSize = 50)
     private Long id;
     @Column(nullable = false)
     private Integer quantidade;
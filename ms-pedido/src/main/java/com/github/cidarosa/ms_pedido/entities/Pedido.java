@@ -3,6 +3,7 @@ package com.github.cidarosa.ms_pedido.entities;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
@@ -14,11 +15,18 @@ import java.util.List;
 @EqualsAndHashCode(of = "id")
 
 @Entity
-@Table(name = "tb_pedido")
+// índices da busca (GET /pedidos/search) - filtro por igualdade primeiro, faixa de data depois
+@Table(name = "tb_pedido", indexes = {
+        @Index(name = "idx_pedido_cpf_data", columnList = "cpf, data"),
+        @Index(name = "idx_pedido_status_data", columnList = "status, data"),
+        @Index(name = "idx_pedido_data", columnList = "data")
+})
 public class Pedido {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // SEQUENCE (e não IDENTITY) para permitir batch de INSERT no Hibernate
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_pedido")
+    @SequenceGenerator(name = "seq_pedido", sequenceName = "tb_pedido_seq", allocationSize = 50)
     private Long id;
     @Column(name = "nome", nullable = false, length = 100)
     private String nome;
@@ -28,10 +36,16 @@ public class Pedido {
     private LocalDate data;
     @Enumerated(EnumType.STRING)
     private Status status;
+    // totais materializados - mantidos pelo PedidoService a cada gravação dos itens
+    private BigDecimal valorTotal;
+    private Integer quantidadeDeItens;
+    // incrementada a cada alteração - base do ETag
+    @Version
+    private Long version;
 
     // Relacionamento
     @OneToMany(mappedBy = "pedido",
-            cascade = CascadeType.ALL)
+            cascade = CascadeType.ALL, orphanRemoval = true)
     private List<ItemDoPedido> itens = new ArrayList<>();
 
 }
\ No newline at end of file
@@ -1,5 +1,11 @@
 package com.github.cidarosa.ms_pedido.entities;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum Status {
 
     REALIZADO,
@@ -9,5 +15,37 @@ public enum Status {
     PRONTO_PARA_ENTREGA,
     SAIU_PARA_ENTREGA,
     ENTREGUE,
-    CANCELADO
+    CANCELADO;
+
+    // tabela de transições, montada uma vez: status -> próximos status permitidos
+    private static final Map<Status, Set<Status>> PROXIMOS = new EnumMap<>(Status.class);
+    // inversa: status -> status de onde se pode chegar nele (usada no WHERE do UPDATE condicional)
+    private static final Map<Status, Set<Status>> ORIGENS = new EnumMap<>(Status.class);
+
+    static {
+        PROXIMOS.put(REALIZADO, EnumSet.of(AGUARDANDO_PAGAMENTO, PAGO, CANCELADO));
+        PROXIMOS.put(AGUARDANDO_PAGAMENTO, EnumSet.of(PAGO, CANCELADO));
+        PROXIMOS.put(PAGO, EnumSet.of(CONFIRMADO, CANCELADO));
+        PROXIMOS.put(CONFIRMADO, EnumSet.of(PRONTO_PARA_ENTREGA, CANCELADO));
+        PROXIMOS.put(PRONTO_PARA_ENTREGA, EnumSet.of(SAIU_PARA_ENTREGA));
+        PROXIMOS.put(SAIU_PARA_ENTREGA, EnumSet.of(ENTREGUE));
+        PROXIMOS.put(ENTREGUE, EnumSet.noneOf(Status.class));
+        PROXIMOS.put(CANCELADO, EnumSet.noneOf(Status.class));
+
+        for (Status status : values()) {
+            ORIGENS.put(status, EnumSet.noneOf(Status.class));
+        }
+        PROXIMOS.forEach((origem, destinos) -> destinos.forEach(destino -> ORIGENS.get(destino).add(origem)));
+
+        PROXIMOS.replaceAll((status, destinos) -> Collections.unmodifiableSet(destinos));
+        ORIGENS.replaceAll((status, origens) -> Collections.unmodifiableSet(origens));
+    }
+
+    public boolean podeMudarPara(Status destino) {
+        return PROXIMOS.get(this).contains(destino);
+    }
+
+    public Set<Status> getOrigens() {
+        return ORIGENS.get(this);
+    }
 }
@@ -0,0 +1,38 @@
+package com.github.cidarosa.ms_pedido.jobs;
+
+import com.github.cidarosa.ms_pedido.service.PedidoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+// preenche valorTotal/quantidadeDeItens dos pedidos antigos na subida da aplicação;
+// ligar uma vez com pedido.backfill-totais.enabled=true - pedidos já preenchidos são ignorados
+@Component
+public class BackfillTotaisJob implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackfillTotaisJob.class);
+
+    @Autowired
+    private PedidoService service;
+
+    @Value("${pedido.backfill-totais.enabled:false}")
+    private boolean enabled;
+
+    @Value("${pedido.backfill-totais.chunk-size:500}")
+    private int chunkSize;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        int preenchidos = service.preencherTotais(chunkSize);
+        logger.info("Backfill de totais: {} pedidos preenchidos em {} ms", preenchidos,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+}
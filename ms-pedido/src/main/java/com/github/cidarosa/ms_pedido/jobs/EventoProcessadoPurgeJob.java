@@ -0,0 +1,39 @@
+package com.github.cidarosa.ms_pedido.jobs;
+
+import com.github.cidarosa.ms_pedido.service.PedidoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// apaga periodicamente os ids de eventos do ms-pagamento já aplicados há mais de pedido.eventos.retencao -
+// sem isso tb_evento_processado cresce a cada pagamento
+@Component
+public class EventoProcessadoPurgeJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventoProcessadoPurgeJob.class);
+
+    @Autowired
+    private PedidoService service;
+
+    @Value("${pedido.eventos.purge.enabled:false}")
+    private boolean enabled;
+
+    @Value("${pedido.eventos.retencao:7d}")
+    private Duration retencao;
+
+    @Scheduled(fixedDelayString = "${pedido.eventos.purge.interval:1h}")
+    public void purgar() {
+        if (!enabled) {
+            return;
+        }
+        int apagados = service.purgarEventosProcessados(retencao);
+        if (apagados > 0) {
+            logger.info("Purge de eventos processados: {} ids anteriores a {} apagados", apagados, retencao);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.github.cidarosa.ms_pedido.metrics;
+
+import com.github.cidarosa.ms_pedido.entities.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+// contadores de mudança de status - tag "status" limitada aos valores do enum
+@Component
+public class PedidoMetrics {
+
+    private final Map<Status, Counter> statusCounters = new EnumMap<>(Status.class);
+
+    public PedidoMetrics(MeterRegistry registry) {
+        for (Status status : Status.values()) {
+            statusCounters.put(status, Counter.builder("pedido.status.transicoes")
+                    .description("Pedidos que passaram para o status")
+                    .tag("status", status.name())
+                    .register(registry));
+        }
+    }
+
+    public void statusAlterado(Status status) {
+        if (status != null) {
+            statusCounters.get(status).increment();
+        }
+    }
+
+    public void statusAlterado(Status status, int quantidade) {
+        if (status != null && quantidade > 0) {
+            statusCounters.get(status).increment(quantidade);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.cidarosa.ms_pedido.repositories;
+
+import com.github.cidarosa.ms_pedido.entities.EventoProcessado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface EventoProcessadoRepository extends JpaRepository<EventoProcessado, UUID> {
+
+    @Query("SELECT e.id FROM EventoProcessado e WHERE e.id IN :ids")
+    List<UUID> findIdsIn(Collection<UUID> ids);
+
+    // retenção: ids mais antigos que o limite deixam de ser lembrados
+    @Modifying
+    @Query("DELETE FROM EventoProcessado e WHERE e.processadoEm < :limite")
+    int deleteProcessadosAntes(Instant limite);
+}
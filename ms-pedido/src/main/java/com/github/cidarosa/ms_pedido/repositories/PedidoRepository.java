@@ -1,7 +1,57 @@
 package com.github.cidarosa.ms_pedido.repositories;
 
+import com.github.cidarosa.ms_pedido.dto.PedidoItemLinhaDTO;
 import com.github.cidarosa.ms_pedido.entities.Pedido;
+import com.github.cidarosa.ms_pedido.entities.Status;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
-public interface PedidoRepository extends JpaRepository<Pedido, Long> {
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface PedidoRepository extends JpaRepository<Pedido, Long>, PedidoSearchRepository {
+
+    // paginação por cursor (keyset) - usa a PK, sem OFFSET
+    @Query("SELECT p.id FROM Pedido p WHERE p.id > :after ORDER BY p.id")
+    List<Long> findIdsAfter(Long after, Pageable pageable);
+
+    // leitura das listas: linhas planas pedido x item, sem entidades gerenciadas - ver PedidoService.toPage
+    @Query("SELECT new com.github.cidarosa.ms_pedido.dto.PedidoItemLinhaDTO(p.id, p.nome, p.cpf, p.data, " +
+            "p.status, p.valorTotal, p.quantidadeDeItens, p.version, i.id, i.quantidade, i.descricao, i.valorUnitario) " +
+            "FROM Pedido p LEFT JOIN p.itens i WHERE p.id IN :ids ORDER BY p.id, i.id")
+    List<PedidoItemLinhaDTO> findLinhasByIdIn(List<Long> ids);
+
+    @Query("SELECT p FROM Pedido p LEFT JOIN FETCH p.itens WHERE p.id = :id")
+    Optional<Pedido> findWithItensById(Long id);
+
+    // atualização em massa - incrementa a versão (ETag) e só altera pedidos em um dos status de origem;
+    // limpa o contexto para leituras seguintes na mesma transação não verem o status antigo
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Pedido p SET p.status = :status, p.version = p.version + 1 " +
+            "WHERE p.id IN :ids AND p.status IN :origens")
+    int updateStatus(Collection<Long> ids, Status status, Collection<Status> origens);
+
+    // backfill de valorTotal/quantidadeDeItens - pedidos gravados antes das colunas existirem
+    @Query("SELECT p.id FROM Pedido p WHERE p.id > :after AND p.valorTotal IS NULL ORDER BY p.id")
+    List<Long> findIdsSemTotaisAfter(Long after, Pageable pageable);
+
+    // calcula os totais no banco, sem carregar os itens; incrementa a versão (ETag)
+    @Modifying
+    @Query("UPDATE Pedido p SET " +
+            "p.valorTotal = (SELECT COALESCE(SUM(i.quantidade * i.valorUnitario), 0) FROM ItemDoPedido i WHERE i.pedido = p), " +
+            "p.quantidadeDeItens = (SELECT COUNT(i) FROM ItemDoPedido i WHERE i.pedido = p), " +
+            "p.version = p.version + 1 " +
+            "WHERE p.id IN :ids")
+    int updateTotais(Collection<Long> ids);
+
+    // só o status, para explicar por que o UPDATE condicional não alterou o pedido
+    @Query("SELECT p.status FROM Pedido p WHERE p.id = :id")
+    Optional<Status> findStatusById(Long id);
+
+    // só a versão, para o If-None-Match - não carrega o pedido nem os itens
+    @Query("SELECT p.version FROM Pedido p WHERE p.id = :id")
+    Optional<Long> findVersionById(Long id);
 }
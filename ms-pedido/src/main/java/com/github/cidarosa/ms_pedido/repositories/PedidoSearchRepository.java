@@ -0,0 +1,12 @@
+package com.github.cidarosa.ms_pedido.repositories;
+
+import com.github.cidarosa.ms_pedido.entities.Pedido;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface PedidoSearchRepository {
+
+    // só os ids, ordenados - os pedidos e itens são carregados depois em uma única query
+    List<Long> findIds(Specification<Pedido> specification, int limit);
+}
@@ -0,0 +1,32 @@
+package com.github.cidarosa.ms_pedido.repositories;
+
+import com.github.cidarosa.ms_pedido.entities.Pedido;
+import com.github.cidarosa.ms_pedido.entities.Status;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+// filtros da busca de pedidos - parâmetro null não gera predicado
+public class PedidoSpecifications {
+
+    public static Specification<Pedido> cpf(String cpf) {
+        return cpf == null ? null : (root, query, cb) -> cb.equal(root.get("cpf"), cpf);
+    }
+
+    public static Specification<Pedido> status(Status status) {
+        return status == null ? null : (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Pedido> dataFrom(LocalDate from) {
+        return from == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("data"), from);
+    }
+
+    public static Specification<Pedido> dataTo(LocalDate to) {
+        return to == null ? null : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("data"), to);
+    }
+
+    // cursor (keyset) - mesmo critério do GET /pedidos
+    public static Specification<Pedido> idAfter(Long after) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), after);
+    }
+}
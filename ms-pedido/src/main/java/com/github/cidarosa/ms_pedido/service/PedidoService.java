@@ -2,49 +2,181 @@
 
 package com.github.cidarosa.ms_pedido.service;
 
+import com.github.cidarosa.ms_pagamento.controller.handlers.dto.FieldMessageDTO;
+import com.github.cidarosa.ms_pagamento.dto.PagamentoStatusEventoDTO;
+import com.github.cidarosa.ms_pedido.config.CacheConfig;
 import com.github.cidarosa.ms_pedido.dto.ItemDoPedidoDTO;
+import com.github.cidarosa.ms_pedido.dto.PedidoBatchResultDTO;
 import com.github.cidarosa.ms_pedido.dto.PedidoDTO;
+import com.github.cidarosa.ms_pedido.dto.PedidoItemLinhaDTO;
+import com.github.cidarosa.ms_pedido.dto.PedidoPageDTO;
+import com.github.cidarosa.ms_pedido.dto.PedidoPatchDTO;
+import com.github.cidarosa.ms_pedido.dto.PedidoStatusBulkResultDTO;
+import com.github.cidarosa.ms_pedido.entities.EventoProcessado;
 import com.github.cidarosa.ms_pedido.entities.ItemDoPedido;
 import com.github.cidarosa.ms_pedido.entities.Pedido;
 import com.github.cidarosa.ms_pedido.entities.Status;
-import com.github.cidarosa.ms_pedido.repositories.ItemDoPedidoRepository;
+import com.github.cidarosa.ms_pedido.metrics.PedidoMetrics;
+import com.github.cidarosa.ms_pedido.repositories.EventoProcessadoRepository;
 import com.github.cidarosa.ms_pedido.repositories.PedidoRepository;
+import com.github.cidarosa.ms_pedido.repositories.PedidoSpecifications;
+import com.github.cidarosa.ms_pedido.service.exceptions.ParametroInvalidoException;
 import com.github.cidarosa.ms_pedido.service.exceptions.ResourceNotFoundException;
-import jakarta.persistence.EntityNotFoundException;
+import com.github.cidarosa.ms_pedido.service.exceptions.TransicaoDeStatusInvalidaException;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
 
 @Service
+@Timed(value = "pedido.service", histogram = true)
 public class PedidoService {
 
     @Autowired
     private PedidoRepository repository;
 
     @Autowired
-    private ItemDoPedidoRepository itemDoPedidoRepository;
+    private Validator validator;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PedidoMetrics metrics;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private EventoProcessadoRepository eventoProcessadoRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    // igual a hibernate.jdbc.batch_size
+    public static final int BATCH_CHUNK_SIZE = 50;
+    // pedidos por POST /pedidos/batch - acima disso 400
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    @Transactional(readOnly = true)
+    public PedidoPageDTO findAllPedidos(Long after, Integer limit){
+
+        int pageSize = pageSize(limit);
+        long cursor = after == null ? 0L : after;
+
+        // busca um id a mais para saber se existe próxima página
+        List<Long> ids = repository.findIdsAfter(cursor, PageRequest.of(0, pageSize + 1));
+        return toPage(ids, pageSize);
+    }
+
+    // filtros opcionais combinados com AND; cada combinação é atendida por um índice de tb_pedido
     @Transactional(readOnly = true)
-    public List<PedidoDTO> findAllPedidos(){
+    public PedidoPageDTO searchPedidos(String cpf, Status status, LocalDate from, LocalDate to,
+                                       Long after, Integer limit) {
+
+        int pageSize = pageSize(limit);
+        long cursor = after == null ? 0L : after;
+        Specification<Pedido> specification = Specification.where(PedidoSpecifications.idAfter(cursor))
+                .and(PedidoSpecifications.cpf(cpf))
+                .and(PedidoSpecifications.status(status))
+                .and(PedidoSpecifications.dataFrom(from))
+                .and(PedidoSpecifications.dataTo(to));
+
+        List<Long> ids = repository.findIds(specification, pageSize + 1);
+        return toPage(ids, pageSize);
+    }
+
+    private static int pageSize(Integer limit) {
+        return limit == null ? DEFAULT_PAGE_SIZE
+                : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    // ids com um a mais que o tamanho da página; pedidos e itens em uma única query de projeção,
+    // agrupados em PedidoDTO em uma passada (linhas ordenadas por pedido)
+    private PedidoPageDTO toPage(List<Long> ids, int pageSize) {
 
-        return repository.findAll()
-                .stream().map(PedidoDTO::new).toList();
+        boolean hasNext = ids.size() > pageSize;
+        if (hasNext) {
+            ids = ids.subList(0, pageSize);
+        }
+        if (ids.isEmpty()) {
+            return new PedidoPageDTO(new ArrayList<>(), null);
+        }
+
+        List<PedidoDTO> content = new ArrayList<>(ids.size());
+        PedidoDTO atual = null;
+        for (PedidoItemLinhaDTO linha : repository.findLinhasByIdIn(ids)) {
+            if (atual == null || !atual.getId().equals(linha.getId())) {
+                atual = new PedidoDTO(linha);
+                content.add(atual);
+            }
+            if (linha.getItemId() != null) {
+                atual.getItens().add(new ItemDoPedidoDTO(linha));
+            }
+        }
+        Long nextCursor = hasNext ? ids.get(ids.size() - 1) : null;
+        return new PedidoPageDTO(content, nextCursor);
     }
 
+    @Cacheable(cacheNames = CacheConfig.PEDIDOS, key = "#id")
     @Transactional(readOnly = true)
     public PedidoDTO  findById(Long id){
 
-        Pedido entity = repository.findById(id).orElseThrow(
+        Pedido entity = repository.findWithItensById(id).orElseThrow(
                 () -> new ResourceNotFoundException("Recurso não encontrado. Id: " + id)
         );
 
         return new PedidoDTO(entity);
     }
 
+    @Transactional(readOnly = true)
+    public Long findVersion(Long id) {
+        return repository.findVersionById(id).orElseThrow(
+                () -> new ResourceNotFoundException("Recurso não encontrado. Id: " + id)
+        );
+    }
+
+    // só o status (GET /pedidos/{id}/status) - consultado pelo ms-pagamento antes de aceitar um pagamento
+    @Transactional(readOnly = true)
+    public Status findStatus(Long id) {
+        return repository.findStatusById(id).orElseThrow(
+                () -> new ResourceNotFoundException("Recurso não encontrado. Id: " + id)
+        );
+    }
+
+    @CachePut(cacheNames = CacheConfig.PEDIDOS, key = "#result.id")
     @Transactional
     public PedidoDTO savePedido(PedidoDTO dto){
 
@@ -52,24 +184,222 @@ public class PedidoService {
         entity.setData(LocalDate.now());
         entity.setStatus(Status.REALIZADO);
         copyDtoToEntity(dto, entity);
+        // itens gravados por cascade
         entity = repository.save(entity);
-        itemDoPedidoRepository.saveAll(entity.getItens());
+        metrics.statusAlterado(Status.REALIZADO);
         return new PedidoDTO(entity);
     }
 
+    // cada chunk é gravado na sua própria transação; um pedido inválido não desfaz os demais
+    public List<PedidoBatchResultDTO> savePedidos(List<PedidoDTO> dtos) {
+
+        if (dtos.size() > MAX_BATCH_SIZE) {
+            throw new ParametroInvalidoException("Máximo de " + MAX_BATCH_SIZE + " pedidos por lote");
+        }
+        PedidoBatchResultDTO[] results = new PedidoBatchResultDTO[dtos.size()];
+        List<Integer> validIndexes = new ArrayList<>();
+
+        for (int i = 0; i < dtos.size(); i++) {
+            if (dtos.get(i) == null) {
+                results[i] = PedidoBatchResultDTO.rejected(i, List.of(new FieldMessageDTO(null, "Pedido requerido")));
+                continue;
+            }
+            Set<ConstraintViolation<PedidoDTO>> violations = validator.validate(dtos.get(i));
+            if (violations.isEmpty()) {
+                validIndexes.add(i);
+            } else {
+                List<FieldMessageDTO> errors = new ArrayList<>();
+                for (ConstraintViolation<PedidoDTO> violation : violations) {
+                    errors.add(new FieldMessageDTO(violation.getPropertyPath().toString(),
+                            violation.getMessage()));
+                }
+                results[i] = PedidoBatchResultDTO.rejected(i, errors);
+            }
+        }
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        for (int start = 0; start < validIndexes.size(); start += BATCH_CHUNK_SIZE) {
+            List<Integer> chunk = validIndexes.subList(start,
+                    Math.min(start + BATCH_CHUNK_SIZE, validIndexes.size()));
+            try {
+                List<Pedido> saved = transaction.execute(status -> persistChunk(dtos, chunk));
+                for (int j = 0; j < chunk.size(); j++) {
+                    results[chunk.get(j)] = PedidoBatchResultDTO.created(chunk.get(j), saved.get(j).getId());
+                    metrics.statusAlterado(Status.REALIZADO);
+                }
+            } catch (RuntimeException e) {
+                // refaz o chunk pedido a pedido para isolar o que falhou - no banco ou não:
+                // cada pedido sai criado ou rejeitado, nunca um 500 com chunks anteriores já gravados
+                for (Integer index : chunk) {
+                    try {
+                        List<Pedido> saved = transaction.execute(status -> persistChunk(dtos, List.of(index)));
+                        results[index] = PedidoBatchResultDTO.created(index, saved.get(0).getId());
+                        metrics.statusAlterado(Status.REALIZADO);
+                    } catch (RuntimeException ex) {
+                        results[index] = PedidoBatchResultDTO.rejected(index,
+                                List.of(new FieldMessageDTO(null, "Erro ao gravar o pedido")));
+                    }
+                }
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    // eventos do ms-pagamento (outbox): descarta os já aplicados e muda o status
+    // de todos os pedidos em um único UPDATE
     @Transactional
-    public PedidoDTO updatePedido(Long id, PedidoDTO dto) {
-        try {
-            Pedido entity = repository.getReferenceById(id);
+    public PedidoStatusBulkResultDTO aplicarEventosDePagamento(List<PagamentoStatusEventoDTO> eventos) {
+
+        Map<UUID, PagamentoStatusEventoDTO> novos = new LinkedHashMap<>();
+        for (PagamentoStatusEventoDTO evento : eventos) {
+            novos.putIfAbsent(evento.getEventoId(), evento);
+        }
+        eventoProcessadoRepository.findIdsIn(novos.keySet()).forEach(novos::remove);
+
+        Instant agora = Instant.now();
+        Set<Long> pagos = new LinkedHashSet<>();
+        for (PagamentoStatusEventoDTO evento : novos.values()) {
+            // mesma transação do UPDATE - se falhar, o evento volta a ser aceito na reentrega
+            entityManager.persist(new EventoProcessado(evento.getEventoId(), agora));
+            if (evento.getStatus() == com.github.cidarosa.ms_pagamento.entity.Status.CONFIRMADO) {
+                pagos.add(evento.getPedidoId());
+            }
+        }
+
+        int atualizados = 0;
+        if (!pagos.isEmpty()) {
+            // pagamento confirmado só move para PAGO pedidos que ainda não avançaram
+            atualizados = repository.updateStatus(pagos, Status.PAGO, Status.PAGO.getOrigens());
+            // o UPDATE não passa pelo cache - remove os DTOs depois do commit
+            Cache cache = cacheManager.getCache(CacheConfig.PEDIDOS);
+            pagos.forEach(cache::evict);
+            metrics.statusAlterado(Status.PAGO, atualizados);
+        }
+        return new PedidoStatusBulkResultDTO(eventos.size(), eventos.size() - novos.size(), atualizados);
+    }
+
+    // esquece eventos processados antes de agora - retencao; retorna quantos foram apagados.
+    // A retenção deve cobrir o maior atraso de reentrega do relay - um evento reentregue depois
+    // disso é aplicado de novo (o UPDATE condicional para PAGO não altera pedidos já pagos)
+    @Transactional
+    public int purgarEventosProcessados(Duration retencao) {
+        return eventoProcessadoRepository.deleteProcessadosAntes(Instant.now().minus(retencao));
+    }
+
+    // backfill one-shot: um chunk por transação, em ordem de id; retorna quantos pedidos foram preenchidos
+    public int preencherTotais(int chunkSize) {
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        int preenchidos = 0;
+        long cursor = 0L;
+        while (true) {
+            long after = cursor;
+            List<Long> ids = transaction.execute(status -> {
+                List<Long> chunk = repository.findIdsSemTotaisAfter(after, PageRequest.of(0, chunkSize));
+                if (!chunk.isEmpty()) {
+                    repository.updateTotais(chunk);
+                    Cache cache = cacheManager.getCache(CacheConfig.PEDIDOS);
+                    chunk.forEach(cache::evict);
+                }
+                return chunk;
+            });
+            if (ids.isEmpty()) {
+                return preenchidos;
+            }
+            preenchidos += ids.size();
+            cursor = ids.get(ids.size() - 1);
+        }
+    }
+
+    private List<Pedido> persistChunk(List<PedidoDTO> dtos, List<Integer> indexes) {
+
+        List<Pedido> entities = new ArrayList<>();
+        for (Integer index : indexes) {
+            Pedido entity = new Pedido();
             entity.setData(LocalDate.now());
             entity.setStatus(Status.REALIZADO);
-            itemDoPedidoRepository.deleteByPedidoId(id);
-            copyDtoToEntity(dto, entity);
-            entity = repository.save((entity));
-            itemDoPedidoRepository.saveAll(entity.getItens());
-            return new PedidoDTO(entity);
-        } catch (EntityNotFoundException e) {
-            throw new ResourceNotFoundException("Recurso não encontrado. Id: " + id);
+            copyDtoToEntity(dtos.get(index), entity);
+            entities.add(entity);
+        }
+        // itens gravados por cascade; o flush envia os INSERTs em batch
+        repository.saveAll(entities);
+        repository.flush();
+        return entities;
+    }
+
+    @CachePut(cacheNames = CacheConfig.PEDIDOS, key = "#id")
+    @Transactional
+    public PedidoDTO updatePedido(Long id, PedidoDTO dto) {
+
+        Pedido entity = repository.findWithItensById(id).orElseThrow(
+                () -> new ResourceNotFoundException("Recurso não encontrado. Id: " + id)
+        );
+        if (entity.getStatus() != Status.REALIZADO) {
+            metrics.statusAlterado(Status.REALIZADO);
+        }
+        entity.setData(LocalDate.now());
+        entity.setStatus(Status.REALIZADO);
+        entity.setNome(dto.getNome());
+        entity.setCpf(dto.getCpf());
+        Long version = entity.getVersion();
+        boolean itensAlterados = mergeItens(dto.getItens(), entity);
+        // flush para os itens novos receberem id antes de montar o DTO
+        repository.flush();
+        incrementVersionIfNeeded(entity, version, itensAlterados);
+        return new PedidoDTO(entity);
+    }
+
+    // um único UPDATE condicional (status atual entre as origens permitidas), sem carregar o pedido;
+    // se nada mudou, consulta só o status para distinguir 404 de transição inválida ou concorrente
+    @Transactional
+    public void updateStatus(Long id, Status status) {
+
+        int atualizados = repository.updateStatus(List.of(id), status, status.getOrigens());
+        if (atualizados == 0) {
+            Status atual = repository.findStatusById(id).orElseThrow(
+                    () -> new ResourceNotFoundException("Recurso não encontrado. Id: " + id)
+            );
+            // transição permitida a partir do status lido agora: outra requisição mudou o pedido antes do UPDATE
+            String motivo = atual.podeMudarPara(status) ? "Status alterado concorrentemente"
+                    : "Transição de status inválida";
+            throw new TransicaoDeStatusInvalidaException(motivo + ": " + atual + " -> " + status + ". Id: " + id);
+        }
+        // o UPDATE não passa pelo cache - remove o DTO depois do commit
+        cacheManager.getCache(CacheConfig.PEDIDOS).evict(id);
+        metrics.statusAlterado(status);
+    }
+
+    // PATCH - só altera os campos presentes; itens ausentes (null) ficam intactos
+    @CachePut(cacheNames = CacheConfig.PEDIDOS, key = "#id")
+    @Transactional
+    public PedidoDTO patchPedido(Long id, PedidoPatchDTO dto) {
+
+        Pedido entity = repository.findWithItensById(id).orElseThrow(
+                () -> new ResourceNotFoundException("Recurso não encontrado. Id: " + id)
+        );
+        if (dto.getNome() != null) {
+            entity.setNome(dto.getNome());
+        }
+        if (dto.getCpf() != null) {
+            entity.setCpf(dto.getCpf());
+        }
+        Long version = entity.getVersion();
+        boolean itensAlterados = dto.getItens() != null && mergeItens(dto.getItens(), entity);
+        repository.flush();
+        incrementVersionIfNeeded(entity, version, itensAlterados);
+        return new PedidoDTO(entity);
+    }
+
+    // itens ficam em outra tabela e não alteram a versão do pedido sozinhos;
+    // sem isso o ETag continuaria o mesmo depois de mudar só um item
+    private void incrementVersionIfNeeded(Pedido entity, Long version, boolean itensAlterados) {
+
+        if (itensAlterados && version.equals(entity.getVersion())) {
+            entityManager.lock(entity, LockModeType.PESSIMISTIC_FORCE_INCREMENT);
         }
     }
 
@@ -79,16 +409,76 @@ public class PedidoService {
         entity.setCpf(dto.getCpf());
 
         List<ItemDoPedido> itens = new ArrayList<>();
-        itens.clear();
 
         for (ItemDoPedidoDTO itemDTO : dto.getItens()){
             ItemDoPedido itemDoPedido = new ItemDoPedido();
-            itemDoPedido.setQuantidade(itemDTO.getQuantidade());
-            itemDoPedido.setDescricao(itemDTO.getDescricao());
-            itemDoPedido.setValorUnitario(itemDTO.getValorUnitario());
+            copyItemDtoToEntity(itemDTO, itemDoPedido);
             itemDoPedido.setPedido(entity);
             itens.add(itemDoPedido);
         }
         entity.setItens(itens);
+        atualizarTotais(entity);
+    }
+
+    // reconcilia os itens pelo id: atualiza os existentes, insere os novos
+    // e remove (orphanRemoval) os que não vieram na requisição;
+    // retorna true se algum item foi incluído, removido ou alterado
+    private boolean mergeItens(List<ItemDoPedidoDTO> itemDTOs, Pedido entity) {
+
+        Map<Long, ItemDoPedido> existentes = new HashMap<>();
+        for (ItemDoPedido item : entity.getItens()) {
+            existentes.put(item.getId(), item);
+        }
+
+        Set<Long> mantidos = new HashSet<>();
+        List<ItemDoPedido> novos = new ArrayList<>();
+        boolean alterado = false;
+
+        for (ItemDoPedidoDTO itemDTO : itemDTOs) {
+            ItemDoPedido item = itemDTO.getId() == null ? null : existentes.get(itemDTO.getId());
+            if (item == null) {
+                item = new ItemDoPedido();
+                item.setPedido(entity);
+                novos.add(item);
+            } else {
+                mantidos.add(item.getId());
+                alterado |= !sameValues(itemDTO, item);
+            }
+            // dirty checking: só gera UPDATE se algum valor mudou
+            copyItemDtoToEntity(itemDTO, item);
+        }
+
+        alterado |= entity.getItens().removeIf(item -> !mantidos.contains(item.getId()));
+        entity.getItens().addAll(novos);
+        atualizarTotais(entity);
+        return alterado || !novos.isEmpty();
+    }
+
+    // valorTotal e quantidadeDeItens ficam em tb_pedido - leituras não precisam somar os itens
+    private void atualizarTotais(Pedido entity) {
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (ItemDoPedido item : entity.getItens()) {
+            total = total.add(item.getValorUnitario().multiply(BigDecimal.valueOf(item.getQuantidade())));
+        }
+        entity.setValorTotal(total);
+        entity.setQuantidadeDeItens(entity.getItens().size());
+    }
+
+    private boolean sameValues(ItemDoPedidoDTO itemDTO, ItemDoPedido item) {
+
+        return Objects.equals(itemDTO.getQuantidade(), item.getQuantidade())
+                && Objects.equals(itemDTO.getDescricao(), item.getDescricao())
+                && (itemDTO.getValorUnitario() == null || item.getValorUnitario() == null
+                        ? itemDTO.getValorUnitario() == item.getValorUnitario()
+                        // compareTo, como o dirty checking: 250.0 e 250.00 são o mesmo valor
+                        : itemDTO.getValorUnitario().compareTo(item.getValorUnitario()) == 0);
+    }
+
+    private void copyItemDtoToEntity(ItemDoPedidoDTO itemDTO, ItemDoPedido item) {
+
+        item.setQuantidade(itemDTO.getQuantidade());
+        item.setDescricao(itemDTO.getDescricao());
+        item.setValorUnitario(itemDTO.getValorUnitario());
     }
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+package com.github.cidarosa.ms_pedido.service.exceptions;
+
+public class TransicaoDeStatusInvalidaException extends RuntimeException{
+
+    public TransicaoDeStatusInvalidaException(String message) {
+        super(message);
+    }
+}
@@ -1,7 +1,10 @@
-INSERT INTO tb_pedido(nome, cpf, data, status) VALUES('Jon Snow', '12345678935', '2025-04-25', 'REALIZADO');
-INSERT INTO tb_item_do_pedido(quantidade, descricao, valor_unitario, pedido_id) VALUES(2, 'Mouse sem fio Microsoft', 250.0, 1);
-INSERT INTO tb_item_do_pedido(quantidade, descricao, valor_unitario, pedido_id) VALUES(1, 'Teclado sem fio Microsoft', 290.0, 1);
+INSERT INTO tb_pedido(id, nome, cpf, data, status, valor_total, quantidade_de_itens, version) VALUES(1, 'Jon Snow', '12345678935', '2025-04-25', 'REALIZADO', 790.0, 2, 0);
+INSERT INTO tb_item_do_pedido(id, quantidade, descricao, valor_unitario, pedido_id) VALUES(1, 2, 'Mouse sem fio Microsoft', 250.0, 1);
+INSERT INTO tb_item_do_pedido(id, quantidade, descricao, valor_unitario, pedido_id) VALUES(2, 1, 'Teclado sem fio Microsoft', 290.0, 1);
 
 
-INSERT INTO tb_pedido(nome, cpf, data, status) VALUES('Ayra Stark', '36547812396', '2025-04-25', 'REALIZADO');
-INSERT INTO tb_item_do_pedido(quantidade, descricao, valor_unitario, pedido_id) VALUES(1, 'Smart TV LG LED', 3599.0, 2);
\ No newline at end of file
+INSERT INTO tb_pedido(id, nome, cpf, data, status, valor_total, quantidade_de_itens, version) VALUES(2, 'Ayra Stark', '36547812396', '2025-04-25', 'REALIZADO', 3599.0, 1, 0);
+INSERT INTO tb_item_do_pedido(id, quantidade, descricao, valor_unitario, pedido_id) VALUES(3, 1, 'Smart TV LG LED', 3599.0, 2);
+
+ALTER SEQUENCE tb_pedido_seq RESTART WITH 3;
+ALTER SEQUENCE tb_item_do_pedido_seq RESTART WITH 4;
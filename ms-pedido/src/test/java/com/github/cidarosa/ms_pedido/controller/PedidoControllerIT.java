@@ -0,0 +1,379 @@
+package com.github.cidarosa.ms_pedido.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.cidarosa.ms_pedido.dto.ItemDoPedidoDTO;
+import com.github.cidarosa.ms_pedido.dto.PedidoDTO;
+import com.github.cidarosa.ms_pedido.service.PedidoService;
+import com.github.cidarosa.ms_pedido.tests.Factory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+public class PedidoControllerIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long existingId;
+    private Long nonExistingId;
+
+    @BeforeEach
+    void setup() throws Exception {
+        existingId = 1L;
+        nonExistingId = 100L;
+    }
+
+    @Test
+    public void getAllShouldReturnFirstPageWithNextCursor() throws Exception {
+
+        mockMvc.perform(get("/pedidos")
+                        .param("limit", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.content[0].nome").value("Jon Snow"))
+                .andExpect(jsonPath("$.content[0].valorTotal").value(790.0))
+                .andExpect(jsonPath("$.content[0].quantidadeDeItens").value(2))
+                .andExpect(jsonPath("$.content[0].itens.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").value(1));
+    }
+
+    @Test
+    public void getAllShouldReturnLastPageWithoutNextCursor() throws Exception {
+
+        mockMvc.perform(get("/pedidos")
+                        .param("after", "1")
+                        .param("limit", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].id").value(2))
+                .andExpect(jsonPath("$.content[0].itens.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").isEmpty());
+    }
+
+    @Test
+    public void getAllShouldReturnEmptyPageWhenCursorIsPastTheEnd() throws Exception {
+
+        mockMvc.perform(get("/pedidos")
+                        .param("after", "100")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").isEmpty())
+                .andExpect(jsonPath("$.nextCursor").isEmpty());
+    }
+
+    @Test
+    public void updateShouldKeepItemIdsAndOnlyChangeDiffs() throws Exception {
+
+        List<ItemDoPedidoDTO> itens = new ArrayList<>();
+        // item 1 alterado, item 2 removido, um item novo
+        itens.add(new ItemDoPedidoDTO(1L, 5, "Mouse sem fio Microsoft", BigDecimal.valueOf(250.0)));
+        itens.add(Factory.createNewItemDoPedidoDTO());
+        PedidoDTO dto = new PedidoDTO(null, "Jon Snow", "12345678935", null, null, null, null, itens, null);
+
+        mockMvc.perform(put("/pedidos/{id}", existingId)
+                        .content(objectMapper.writeValueAsString(dto))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens.length()").value(2))
+                .andExpect(jsonPath("$.itens[0].id").value(1))
+                .andExpect(jsonPath("$.itens[0].quantidade").value(5))
+                .andExpect(jsonPath("$.itens[1].id").exists())
+                .andExpect(jsonPath("$.itens[1].descricao").value("Mouse sem fio Logitech"))
+                // 5 x 250 + 2 x 150
+                .andExpect(jsonPath("$.valorTotal").value(1550.0))
+                .andExpect(jsonPath("$.quantidadeDeItens").value(2));
+    }
+
+    @Test
+    public void updateShouldReturnNotFoundWhenIdDoesNotExist() throws Exception {
+
+        mockMvc.perform(put("/pedidos/{id}", nonExistingId)
+                        .content(objectMapper.writeValueAsString(Factory.createNewPedidoDTO()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void patchShouldKeepItensWhenAbsent() throws Exception {
+
+        mockMvc.perform(patch("/pedidos/{id}", existingId)
+                        .content("{\"nome\": \"Jon Targaryen\"}")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nome").value("Jon Targaryen"))
+                .andExpect(jsonPath("$.cpf").value("12345678935"))
+                .andExpect(jsonPath("$.status").value("REALIZADO"))
+                .andExpect(jsonPath("$.valorTotal").value(790.0))
+                .andExpect(jsonPath("$.itens.length()").value(2));
+    }
+
+    @Test
+    public void getByIdShouldReturnNotModifiedWhenETagMatches() throws Exception {
+
+        mockMvc.perform(get("/pedidos/{id}", existingId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andExpect(jsonPath("$.version").doesNotExist());
+
+        mockMvc.perform(get("/pedidos/{id}", existingId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    public void patchShouldChangeETagWhenOnlyItensChange() throws Exception {
+
+        String itens = "{\"itens\": [{\"id\": 1, \"quantidade\": 7, " +
+                "\"descricao\": \"Mouse sem fio Microsoft\", \"valorUnitario\": 250.0}]}";
+
+        mockMvc.perform(patch("/pedidos/{id}", existingId)
+                        .content(itens)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/pedidos/{id}", existingId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.itens[0].quantidade").value(7));
+    }
+
+    @Test
+    public void getByIdShouldReturnNotFoundWhenIfNoneMatchAndIdDoesNotExist() throws Exception {
+
+        mockMvc.perform(get("/pedidos/{id}", nonExistingId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void statusBulkShouldMovePedidoToPagoAndIgnoreRedeliveries() throws Exception {
+
+        String eventos = "[{\"eventoId\": \"0f6d3c2e-5a7b-4c1d-9e8f-000000000101\", \"pagamentoId\": 1, \"pedidoId\": 1, \"status\": \"CONFIRMADO\"}," +
+                "{\"eventoId\": \"0f6d3c2e-5a7b-4c1d-9e8f-000000000102\", \"pagamentoId\": 2, \"pedidoId\": 2, \"status\": \"CANCELADO\"}]";
+
+        mockMvc.perform(post("/pedidos/status/bulk")
+                        .content(eventos)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.recebidos").value(2))
+                .andExpect(jsonPath("$.duplicados").value(0))
+                .andExpect(jsonPath("$.atualizados").value(1));
+
+        // reentrega do mesmo lote (at-least-once) - nada muda
+        mockMvc.perform(post("/pedidos/status/bulk")
+                        .content(eventos)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.duplicados").value(2))
+                .andExpect(jsonPath("$.atualizados").value(0));
+
+        mockMvc.perform(get("/pedidos/{id}", existingId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.status").value("PAGO"));
+
+        mockMvc.perform(get("/pedidos/{id}", 2L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.status").value("REALIZADO"));
+    }
+
+    @Test
+    public void patchShouldReturnUnprocessableEntityWhenInvalidData() throws Exception {
+
+        mockMvc.perform(patch("/pedidos/{id}", existingId)
+                        .content("{\"cpf\": \"123\"}")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    public void searchShouldFilterByCpfStatusAndDateRange() throws Exception {
+
+        mockMvc.perform(get("/pedidos/search")
+                        .param("cpf", "36547812396")
+                        .param("status", "REALIZADO")
+                        .param("from", "2025-04-01")
+                        .param("to", "2025-04-30")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].id").value(2))
+                .andExpect(jsonPath("$.content[0].itens.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").isEmpty());
+    }
+
+    @Test
+    public void searchShouldPageWithCursor() throws Exception {
+
+        mockMvc.perform(get("/pedidos/search")
+                        .param("status", "REALIZADO")
+                        .param("limit", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.nextCursor").value(1));
+
+        mockMvc.perform(get("/pedidos/search")
+                        .param("status", "REALIZADO")
+                        .param("after", "1")
+                        .param("limit", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(2));
+    }
+
+    @Test
+    public void searchShouldReturnEmptyPageWhenNothingMatches() throws Exception {
+
+        mockMvc.perform(get("/pedidos/search")
+                        .param("from", "2030-01-01")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(0))
+                .andExpect(jsonPath("$.nextCursor").isEmpty());
+    }
+
+    @Test
+    public void patchStatusShouldApplyAllowedTransitionAndChangeETag() throws Exception {
+
+        String eTag = mockMvc.perform(get("/pedidos/{id}", existingId))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(patch("/pedidos/{id}/status", existingId)
+                        .content("{\"status\": \"AGUARDANDO_PAGAMENTO\"}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/pedidos/{id}", existingId)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("AGUARDANDO_PAGAMENTO"));
+    }
+
+    @Test
+    public void patchStatusShouldReturnConflictWhenTransitionIsNotAllowed() throws Exception {
+
+        // REALIZADO -> ENTREGUE pula etapas
+        mockMvc.perform(patch("/pedidos/{id}/status", existingId)
+                        .content("{\"status\": \"ENTREGUE\"}")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Transição de status inválida: REALIZADO -> ENTREGUE. Id: 1"));
+
+        mockMvc.perform(get("/pedidos/{id}", existingId))
+                .andExpect(jsonPath("$.status").value("REALIZADO"));
+    }
+
+    @Test
+    public void patchStatusShouldReturnConflictWhenPedidoIsCancelado() throws Exception {
+
+        mockMvc.perform(patch("/pedidos/{id}/status", existingId)
+                        .content("{\"status\": \"CANCELADO\"}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(patch("/pedidos/{id}/status", existingId)
+                        .content("{\"status\": \"PAGO\"}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    public void patchStatusShouldReturnNotFoundWhenIdDoesNotExist() throws Exception {
+
+        mockMvc.perform(patch("/pedidos/{id}/status", nonExistingId)
+                        .content("{\"status\": \"PAGO\"}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void patchStatusShouldReturnUnprocessableEntityWhenStatusIsMissing() throws Exception {
+
+        mockMvc.perform(patch("/pedidos/{id}/status", existingId)
+                        .content("{}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    public void getStatusShouldReturnOnlyStatus() throws Exception {
+
+        mockMvc.perform(get("/pedidos/{id}/status", existingId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("REALIZADO"))
+                .andExpect(jsonPath("$.itens").doesNotExist());
+    }
+
+    @Test
+    public void getStatusShouldReturnNotFoundWhenIdDoesNotExist() throws Exception {
+
+        mockMvc.perform(get("/pedidos/{id}/status", nonExistingId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void createPedidosShouldReturnBadRequestWhenBatchExceedsMaxSize() throws Exception {
+
+        List<PedidoDTO> dtos = new ArrayList<>();
+        for (int i = 0; i <= PedidoService.MAX_BATCH_SIZE; i++) {
+            dtos.add(Factory.createNewPedidoDTO());
+        }
+
+        mockMvc.perform(post("/pedidos/batch")
+                        .content(objectMapper.writeValueAsString(dtos))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+}
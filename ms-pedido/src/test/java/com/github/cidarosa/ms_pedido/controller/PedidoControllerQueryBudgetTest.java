@@ -0,0 +1,237 @@
+package com.github.cidarosa.ms_pedido.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.cidarosa.ms_pagamento.dto.PagamentoStatusEventoDTO;
+import com.github.cidarosa.ms_pedido.config.CacheConfig;
+import com.github.cidarosa.ms_pedido.dto.ItemDoPedidoDTO;
+import com.github.cidarosa.ms_pedido.dto.PedidoDTO;
+import com.github.cidarosa.ms_pedido.tests.Factory;
+import com.github.cidarosa.sqltrace.tests.QueryCount;
+import com.github.cidarosa.sqltrace.tests.QueryCounter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// orçamento de SQL por endpoint - falha o build em regressões N+1
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+public class PedidoControllerQueryBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private QueryCounter queryCounter;
+    private Long existingId;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setup() throws Exception {
+        queryCounter = new QueryCounter(entityManagerFactory, entityManager);
+        existingId = 1L;
+        // sem PedidoDTO em cache - as leituras medidas vão ao banco
+        cacheManager.getCache(CacheConfig.PEDIDOS).clear();
+    }
+
+    @Test
+    public void getAllShouldStayWithinBudget() throws Exception {
+
+        QueryCount count = queryCounter.measure(() -> mockMvc.perform(get("/pedidos")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk()));
+
+        // ids + linhas pedido x item projetadas em PedidoDTO - nenhuma entidade gerenciada
+        count.assertStatementsAtMost(2)
+                .assertEntityLoadsAtMost(0)
+                .assertRowsAtMost(5);
+    }
+
+    @Test
+    public void getStatusShouldNotLoadPedido() throws Exception {
+
+        QueryCount count = queryCounter.measure(() -> mockMvc.perform(get("/pedidos/{id}/status", existingId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk()));
+
+        // só o SELECT do status
+        count.assertStatementsAtMost(1)
+                .assertEntityLoadsAtMost(0);
+    }
+
+    @Test
+    public void searchShouldStayWithinBudget() throws Exception {
+
+        QueryCount count = queryCounter.measure(() -> mockMvc.perform(get("/pedidos/search")
+                        .param("cpf", "12345678935")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk()));
+
+        // ids do pedido 1 + uma linha por item
+        count.assertStatementsAtMost(2)
+                .assertEntityLoadsAtMost(0)
+                .assertRowsAtMost(3);
+    }
+
+    @Test
+    public void getByIdShouldStayWithinBudget() throws Exception {
+
+        QueryCount count = queryCounter.measure(() -> mockMvc.perform(get("/pedidos/{id}", existingId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk()));
+
+        // pedido e itens em um único SELECT (fetch join)
+        count.assertStatementsAtLeast(1)
+                .assertStatementsAtMost(1)
+                .assertEntityLoadsAtMost(3);
+    }
+
+    @Test
+    public void conditionalGetByIdShouldNotLoadEntities() throws Exception {
+
+        QueryCount count = queryCounter.measure(() -> mockMvc.perform(get("/pedidos/{id}", existingId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified()));
+
+        // só o SELECT da versão - nem o pedido nem os itens são carregados
+        count.assertStatementsAtMost(1)
+                .assertEntityLoadsAtMost(0)
+                .assertCollectionLoadsAtMost(0);
+    }
+
+    @Test
+    public void createShouldStayWithinBudget() throws Exception {
+
+        String jsonRequestBody = objectMapper.writeValueAsString(Factory.createNewPedidoDTO());
+
+        QueryCount count = queryCounter.measure(() -> mockMvc.perform(post("/pedidos")
+                        .content(jsonRequestBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated()));
+
+        // sequences + um INSERT (batch) por tabela
+        count.assertStatementsAtMost(4)
+                .assertEntityLoadsAtMost(0);
+    }
+
+    @Test
+    // savePedidos grava em transações próprias (REQUIRES_NEW) - descarta o banco depois
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    public void createBatchShouldStayWithinBudget() throws Exception {
+
+        List<PedidoDTO> dtos = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            dtos.add(Factory.createNewPedidoDTO());
+        }
+        String jsonRequestBody = objectMapper.writeValueAsString(dtos);
+
+        QueryCount count = queryCounter.measure(() -> mockMvc.perform(post("/pedidos/batch")
+                        .content(jsonRequestBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk()));
+
+        // 10 pedidos e 20 itens: sequences + um INSERT em batch por tabela - não cresce com o lote
+        count.assertStatementsAtLeast(1)
+                .assertStatementsAtMost(4)
+                .assertEntityLoadsAtMost(0);
+    }
+
+    @Test
+    public void aplicarEventosDePagamentoShouldStayWithinBudget() throws Exception {
+
+        List<PagamentoStatusEventoDTO> eventos = new ArrayList<>();
+        for (long pedidoId = 1; pedidoId <= 2; pedidoId++) {
+            eventos.add(new PagamentoStatusEventoDTO(UUID.randomUUID(), pedidoId, pedidoId,
+                    com.github.cidarosa.ms_pagamento.entity.Status.CONFIRMADO));
+        }
+        String jsonRequestBody = objectMapper.writeValueAsString(eventos);
+
+        QueryCount count = queryCounter.measure(() -> mockMvc.perform(post("/pedidos/status/bulk")
+                        .content(jsonRequestBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk()));
+
+        // ids já processados + INSERT (batch) dos eventos + um UPDATE para todos os pedidos
+        count.assertStatementsAtLeast(1)
+                .assertStatementsAtMost(3)
+                .assertEntityLoadsAtMost(0);
+    }
+
+    @Test
+    public void updateShouldStayWithinBudget() throws Exception {
+
+        List<ItemDoPedidoDTO> itens = new ArrayList<>();
+        itens.add(new ItemDoPedidoDTO(1L, 5, "Mouse sem fio Microsoft", BigDecimal.valueOf(250.0)));
+        itens.add(Factory.createNewItemDoPedidoDTO());
+        String jsonRequestBody = objectMapper.writeValueAsString(
+                new PedidoDTO(null, "Jon Snow", "12345678935", null, null, null, null, itens, null));
+
+        QueryCount count = queryCounter.measure(() -> mockMvc.perform(put("/pedidos/{id}", existingId)
+                        .content(jsonRequestBody)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk()));
+
+        // select + sequence + insert/update/delete dos itens + update do pedido
+        count.assertStatementsAtMost(6)
+                .assertEntityLoadsAtMost(3);
+    }
+
+    @Test
+    public void patchShouldStayWithinBudget() throws Exception {
+
+        QueryCount count = queryCounter.measure(() -> mockMvc.perform(patch("/pedidos/{id}", existingId)
+                        .content("{\"nome\": \"Jon Targaryen\"}")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk()));
+
+        count.assertStatementsAtMost(2)
+                .assertEntityLoadsAtMost(3);
+    }
+
+    @Test
+    public void patchStatusShouldUseSingleUpdateWithoutLoadingPedido() throws Exception {
+
+        QueryCount count = queryCounter.measure(() -> mockMvc.perform(patch("/pedidos/{id}/status", existingId)
+                        .content("{\"status\": \"AGUARDANDO_PAGAMENTO\"}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNoContent()));
+
+        // só o UPDATE condicional
+        count.assertStatementsAtMost(1)
+                .assertEntityLoadsAtMost(0);
+    }
+}
@@ -0,0 +1,85 @@
+package com.github.cidarosa.ms_pedido.repositories;
+
+import com.github.cidarosa.ms_pedido.entities.Status;
+import com.github.cidarosa.ms_pedido.service.PedidoService;
+import com.github.cidarosa.ms_pedido.tests.SqlCapture;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// EXPLAIN do H2 sobre o SQL gerado pela busca - cada combinação de filtros deve usar índice, não tableScan
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:pedidosearchdb",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.github.cidarosa.ms_pedido.tests.SqlCapture"
+})
+public class PedidoSearchIndexTest {
+
+    private static final String CPF = "12345678935";
+    private static final LocalDate FROM = LocalDate.of(2025, 4, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 4, 30);
+
+    @Autowired
+    private PedidoService service;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // plano da query de ids (a primeira do searchPedidos)
+    private String explain(String cpf, Status status, LocalDate from, LocalDate to) {
+        SqlCapture.clear();
+        service.searchPedidos(cpf, status, from, to, null, 10);
+        String sql = SqlCapture.getStatements().get(0);
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class);
+        return String.join("\n", plan);
+    }
+
+    private void assertUsesIndex(String plan, String index) {
+        Assertions.assertFalse(plan.contains("tableScan"), plan);
+        Assertions.assertTrue(plan.toUpperCase().contains(index.toUpperCase()), plan);
+    }
+
+    @Test
+    public void searchByCpfShouldUseCpfDataIndex() {
+        assertUsesIndex(explain(CPF, null, null, null), "IDX_PEDIDO_CPF_DATA");
+    }
+
+    @Test
+    public void searchByCpfAndDateRangeShouldUseCpfDataIndex() {
+        String plan = explain(CPF, null, FROM, TO);
+        assertUsesIndex(plan, "IDX_PEDIDO_CPF_DATA");
+        // a faixa de data também é resolvida no índice
+        Assertions.assertTrue(plan.contains("DATA >="), plan);
+    }
+
+    @Test
+    public void searchByStatusShouldUseStatusDataIndex() {
+        assertUsesIndex(explain(null, Status.REALIZADO, null, null), "IDX_PEDIDO_STATUS_DATA");
+    }
+
+    @Test
+    public void searchByStatusAndDateRangeShouldUseStatusDataIndex() {
+        String plan = explain(null, Status.REALIZADO, FROM, TO);
+        assertUsesIndex(plan, "IDX_PEDIDO_STATUS_DATA");
+        Assertions.assertTrue(plan.contains("DATA >="), plan);
+    }
+
+    @Test
+    public void searchByDateRangeShouldUseDataIndex() {
+        assertUsesIndex(explain(null, null, FROM, TO), "IDX_PEDIDO_DATA");
+    }
+
+    @Test
+    public void searchByCpfStatusAndDateRangeShouldUseIndex() {
+        assertUsesIndex(explain(CPF, Status.REALIZADO, FROM, TO), "IDX_PEDIDO_");
+    }
+
+    @Test
+    public void searchWithoutFiltersShouldUsePrimaryKey() {
+        assertUsesIndex(explain(null, null, null, null), "PRIMARY_KEY");
+    }
+}
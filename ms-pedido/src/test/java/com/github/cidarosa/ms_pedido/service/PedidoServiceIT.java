@@ -0,0 +1,250 @@
+package com.github.cidarosa.ms_pedido.service;
+
+import com.github.cidarosa.ms_pagamento.dto.PagamentoStatusEventoDTO;
+import com.github.cidarosa.ms_pedido.dto.ItemDoPedidoDTO;
+import com.github.cidarosa.ms_pedido.dto.PedidoBatchResultDTO;
+import com.github.cidarosa.ms_pedido.dto.PedidoDTO;
+import com.github.cidarosa.ms_pedido.dto.PedidoPageDTO;
+import com.github.cidarosa.ms_pedido.entities.EventoProcessado;
+import com.github.cidarosa.ms_pedido.entities.Status;
+import com.github.cidarosa.ms_pedido.repositories.EventoProcessadoRepository;
+import com.github.cidarosa.ms_pedido.repositories.PedidoRepository;
+import com.github.cidarosa.ms_pedido.service.exceptions.ParametroInvalidoException;
+import com.github.cidarosa.ms_pedido.tests.Factory;
+import com.github.cidarosa.sqltrace.tests.QueryCount;
+import com.github.cidarosa.sqltrace.tests.QueryCounter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@SpringBootTest
+// savePedidos grava em transações próprias (REQUIRES_NEW) - recria o banco ao final
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class PedidoServiceIT {
+
+    @Autowired
+    private PedidoService service;
+
+    @Autowired
+    private PedidoRepository repository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EventoProcessadoRepository eventoProcessadoRepository;
+
+    @Test
+    public void savePedidosShouldPersistValidPedidosAndRejectInvalidOnes() {
+
+        long countBefore = repository.count();
+        List<PedidoDTO> dtos = List.of(
+                Factory.createNewPedidoDTO(),
+                Factory.createNewPedidoDTOWithInvalidData(),
+                Factory.createNewPedidoDTO());
+
+        List<PedidoBatchResultDTO> results = service.savePedidos(dtos);
+
+        Assertions.assertEquals(3, results.size());
+        Assertions.assertNotNull(results.get(0).getId());
+        Assertions.assertTrue(results.get(0).getErrors().isEmpty());
+        Assertions.assertNull(results.get(1).getId());
+        Assertions.assertFalse(results.get(1).getErrors().isEmpty());
+        Assertions.assertNotNull(results.get(2).getId());
+        Assertions.assertEquals(countBefore + 2, repository.count());
+
+        PedidoDTO saved = service.findById(results.get(2).getId());
+        Assertions.assertEquals(2, saved.getItens().size());
+    }
+
+    @Test
+    public void savePedidosShouldRejectNullPedidosAndItensWithoutFailingTheBatch() {
+
+        long countBefore = repository.count();
+        PedidoDTO valido = Factory.createNewPedidoDTO();
+        List<ItemDoPedidoDTO> comItemNulo = new ArrayList<>(valido.getItens());
+        comItemNulo.add(null);
+        List<PedidoDTO> dtos = new ArrayList<>();
+        dtos.add(Factory.createNewPedidoDTO());
+        dtos.add(new PedidoDTO(null, valido.getNome(), valido.getCpf(), null, null, null, null, null, null));
+        dtos.add(new PedidoDTO(null, valido.getNome(), valido.getCpf(), null, null, null, null, comItemNulo, null));
+        dtos.add(null);
+        dtos.add(Factory.createNewPedidoDTO());
+
+        List<PedidoBatchResultDTO> results = service.savePedidos(dtos);
+
+        Assertions.assertEquals(5, results.size());
+        Assertions.assertNotNull(results.get(0).getId());
+        for (int i = 1; i <= 3; i++) {
+            Assertions.assertNull(results.get(i).getId());
+            Assertions.assertFalse(results.get(i).getErrors().isEmpty());
+        }
+        Assertions.assertNotNull(results.get(4).getId());
+        Assertions.assertEquals(countBefore + 2, repository.count());
+    }
+
+    @Test
+    public void savePedidosShouldThrowWhenBatchExceedsMaxSize() {
+
+        List<PedidoDTO> dtos = new ArrayList<>();
+        for (int i = 0; i <= PedidoService.MAX_BATCH_SIZE; i++) {
+            dtos.add(Factory.createNewPedidoDTO());
+        }
+
+        Assertions.assertThrows(ParametroInvalidoException.class, () -> service.savePedidos(dtos));
+    }
+
+    @Test
+    public void savePedidosShouldBatchInserts() throws Exception {
+
+        List<PedidoDTO> dtos = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            dtos.add(Factory.createNewPedidoDTO());
+        }
+
+        QueryCounter queryCounter = new QueryCounter(entityManagerFactory, entityManager);
+        QueryCount count = queryCounter.measure(() -> service.savePedidos(dtos));
+
+        // 10 pedidos e 20 itens: sequences + um INSERT em batch por tabela
+        count.assertStatementsAtMost(4);
+    }
+
+    @Test
+    public void findByIdShouldServeRepeatedReadsFromCache() throws Exception {
+
+        QueryCounter queryCounter = new QueryCounter(entityManagerFactory, entityManager);
+        service.findById(2L);
+
+        QueryCount count = queryCounter.measure(() -> service.findById(2L));
+
+        count.assertStatementsAtMost(0);
+    }
+
+    @Test
+    public void updatePedidoShouldRefreshCachedPedido() {
+
+        PedidoDTO cached = service.findById(2L);
+        PedidoDTO dto = new PedidoDTO(null, "Arya Stark", cached.getCpf(), null, null, null, null, cached.getItens(), null);
+
+        service.updatePedido(2L, dto);
+
+        Assertions.assertEquals("Arya Stark", service.findById(2L).getNome());
+    }
+
+    @Test
+    public void aplicarEventosDePagamentoShouldEvictCachedPedido() {
+
+        Assertions.assertEquals(Status.REALIZADO, service.findById(1L).getStatus());
+
+        service.aplicarEventosDePagamento(List.of(
+                new PagamentoStatusEventoDTO(UUID.randomUUID(), 1L, 1L,
+                        com.github.cidarosa.ms_pagamento.entity.Status.CONFIRMADO)));
+
+        Assertions.assertEquals(Status.PAGO, service.findById(1L).getStatus());
+    }
+
+    @Test
+    public void savePedidoShouldGenerateIdAfterSeedData() {
+
+        PedidoDTO dto = service.savePedido(Factory.createNewPedidoDTO());
+
+        Assertions.assertTrue(dto.getId() > 2);
+        Assertions.assertEquals(2, dto.getItens().size());
+        Assertions.assertNotNull(dto.getItens().get(0).getId());
+    }
+
+    @Test
+    public void savePedidoShouldMaterializeValorTotalAndQuantidadeDeItens() {
+
+        PedidoDTO dto = service.savePedido(Factory.createNewPedidoDTO());
+
+        // 2 x 150 + 1 x 1399.9
+        Assertions.assertEquals(0, BigDecimal.valueOf(1699.9).compareTo(dto.getValorTotal()));
+        Assertions.assertEquals(2, dto.getQuantidadeDeItens());
+    }
+
+    @Test
+    public void preencherTotaisShouldFillOnlyPedidosWithoutTotais() {
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(service.savePedido(Factory.createNewPedidoDTO()).getId());
+        }
+        // simula pedidos gravados antes das colunas existirem
+        for (Long id : ids) {
+            jdbcTemplate.update("UPDATE tb_pedido SET valor_total = NULL, quantidade_de_itens = NULL WHERE id = ?", id);
+        }
+        long versionBefore = service.findVersion(ids.get(0));
+
+        int preenchidos = service.preencherTotais(2);
+
+        Assertions.assertEquals(3, preenchidos);
+        for (Long id : ids) {
+            PedidoDTO dto = service.findById(id);
+            Assertions.assertEquals(0, BigDecimal.valueOf(1699.9).compareTo(dto.getValorTotal()));
+            Assertions.assertEquals(2, dto.getQuantidadeDeItens());
+        }
+        Assertions.assertEquals(versionBefore + 1, service.findVersion(ids.get(0)));
+        // segunda execução não encontra mais nada
+        Assertions.assertEquals(0, service.preencherTotais(2));
+    }
+
+    @Test
+    public void findAllPedidosShouldFoldItemLinesIntoPedidos() {
+
+        // pedido sem itens - o LEFT JOIN devolve uma linha com os campos do item nulos
+        jdbcTemplate.update("INSERT INTO tb_pedido(id, nome, cpf, data, status, valor_total, quantidade_de_itens, version) " +
+                "VALUES(9000, 'Sem Itens', '11122233344', '2025-04-25', 'REALIZADO', 0, 0, 0)");
+        try {
+            PedidoPageDTO first = service.findAllPedidos(null, 1);
+            Assertions.assertEquals(1, first.getContent().size());
+            Assertions.assertEquals(1L, first.getNextCursor());
+            PedidoDTO pedido = first.getContent().get(0);
+            Assertions.assertEquals("Jon Snow", pedido.getNome());
+            Assertions.assertEquals(service.findVersion(1L), pedido.getVersion());
+            Assertions.assertEquals(List.of(1L, 2L), pedido.getItens().stream().map(ItemDoPedidoDTO::getId).toList());
+            Assertions.assertEquals("Teclado sem fio Microsoft", pedido.getItens().get(1).getDescricao());
+
+            PedidoPageDTO semItens = service.findAllPedidos(8999L, 10);
+            Assertions.assertEquals(1, semItens.getContent().size());
+            Assertions.assertNull(semItens.getNextCursor());
+            Assertions.assertEquals(9000L, semItens.getContent().get(0).getId());
+            Assertions.assertTrue(semItens.getContent().get(0).getItens().isEmpty());
+        } finally {
+            jdbcTemplate.update("DELETE FROM tb_pedido WHERE id = 9000");
+        }
+    }
+
+    @Test
+    public void purgarEventosProcessadosShouldDeleteOnlyIdsOlderThanRetencao() {
+
+        UUID antigo = UUID.randomUUID();
+        UUID recente = UUID.randomUUID();
+        eventoProcessadoRepository.save(new EventoProcessado(antigo, Instant.now().minus(Duration.ofDays(8))));
+        eventoProcessadoRepository.save(new EventoProcessado(recente, Instant.now()));
+
+        int apagados = service.purgarEventosProcessados(Duration.ofDays(7));
+
+        Assertions.assertTrue(apagados >= 1);
+        Assertions.assertFalse(eventoProcessadoRepository.existsById(antigo));
+        Assertions.assertTrue(eventoProcessadoRepository.existsById(recente));
+    }
+}
@@ -0,0 +1,40 @@
+package com.github.cidarosa.ms_pedido.sqltrace;
+
+import com.github.cidarosa.sqltrace.RequestIdFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// SqlTraceConfig do módulo sqltrace (@Import) - banco próprio
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:sqltracedb")
+@AutoConfigureMockMvc
+public class SqlTraceEndpointIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void sqltraceShouldAggregateStatementsExecutedByRequests() throws Exception {
+
+        mockMvc.perform(get("/pedidos/{id}", 1L)
+                        .header(RequestIdFilter.HEADER, "req-456")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(RequestIdFilter.HEADER, "req-456"));
+
+        mockMvc.perform(get("/actuator/sqltrace"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.statements[*].fingerprint",
+                        hasItem(matchesPattern("select .* from tb_pedido .*"))));
+    }
+}
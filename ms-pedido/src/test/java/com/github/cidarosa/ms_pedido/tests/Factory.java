@@ -0,0 +1,28 @@
+package com.github.cidarosa.ms_pedido.tests;
+
+import com.github.cidarosa.ms_pedido.dto.ItemDoPedidoDTO;
+import com.github.cidarosa.ms_pedido.dto.PedidoDTO;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+public class Factory {
+
+    public static ItemDoPedidoDTO createNewItemDoPedidoDTO() {
+        return new ItemDoPedidoDTO(null, 2, "Mouse sem fio Logitech", BigDecimal.valueOf(150.0));
+    }
+
+    public static PedidoDTO createNewPedidoDTO() {
+        List<ItemDoPedidoDTO> itens = new ArrayList<>();
+        itens.add(createNewItemDoPedidoDTO());
+        itens.add(new ItemDoPedidoDTO(null, 1, "Monitor LG 27", BigDecimal.valueOf(1399.9)));
+        return new PedidoDTO(null, "Sansa Stark", "98765432100", null, null, null, null, itens, null);
+    }
+
+    public static PedidoDTO createNewPedidoDTOWithInvalidData() {
+        List<ItemDoPedidoDTO> itens = new ArrayList<>();
+        itens.add(new ItemDoPedidoDTO(null, -1, "Mouse sem fio Logitech", BigDecimal.valueOf(150.0)));
+        return new PedidoDTO(null, "Ed", "123", null, null, null, null, itens, null);
+    }
+}
@@ -0,0 +1,27 @@
+package com.github.cidarosa.ms_pedido.tests;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// guarda o SQL gerado pelo Hibernate - registrar com
+// spring.jpa.properties.hibernate.session_factory.statement_inspector
+public class SqlCapture implements StatementInspector {
+
+    private static final List<String> statements = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        statements.add(sql);
+        return sql;
+    }
+
+    public static List<String> getStatements() {
+        return statements;
+    }
+
+    public static void clear() {
+        statements.clear();
+    }
+}
@@ -0,0 +1,38 @@
+package com.github.cidarosa.sqltrace;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+
+// X-Request-Id recebido (ou gerado) vai para o MDC - correlaciona as linhas de SQL com a requisição -
+// e volta na resposta
+public class RequestIdFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Request-Id";
+
+    // limite do valor aceito do cliente - não deixa o header inflar cada linha de log
+    private static final int MAX_LENGTH = 64;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        String requestId = request.getHeader(HEADER);
+        if (requestId == null || requestId.isBlank() || requestId.length() > MAX_LENGTH) {
+            requestId = UUID.randomUUID().toString();
+        }
+        response.setHeader(HEADER, requestId);
+        MDC.put(SqlTracer.REQUEST_ID, requestId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(SqlTracer.REQUEST_ID);
+        }
+    }
+}
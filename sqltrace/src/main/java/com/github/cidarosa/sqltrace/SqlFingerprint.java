@@ -0,0 +1,43 @@
+package com.github.cidarosa.sqltrace;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+// forma normalizada do SQL: literais viram ?, listas de IN viram (?...) e espaços são colapsados -
+// execuções da mesma consulta com parâmetros ou tamanhos de IN diferentes caem no mesmo fingerprint
+final class SqlFingerprint {
+
+    private static final Pattern STRINGS = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBERS = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    // o Hibernate gera poucos SQLs distintos - normaliza cada um uma vez
+    private static final int CACHE_SIZE = 10_000;
+    private static final Map<String, String> cache = new ConcurrentHashMap<>();
+
+    private SqlFingerprint() {
+    }
+
+    static String of(String sql) {
+        if (sql == null) {
+            return "<desconhecido>";
+        }
+        String fingerprint = cache.get(sql);
+        if (fingerprint == null) {
+            fingerprint = normalize(sql);
+            if (cache.size() < CACHE_SIZE) {
+                cache.put(sql, fingerprint);
+            }
+        }
+        return fingerprint;
+    }
+
+    static String normalize(String sql) {
+        String normalized = STRINGS.matcher(sql).replaceAll("?");
+        normalized = NUMBERS.matcher(normalized).replaceAll("?");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+        return IN_LIST.matcher(normalized).replaceAll("(?...)");
+    }
+}
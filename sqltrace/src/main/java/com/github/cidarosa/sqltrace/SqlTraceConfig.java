@@ -0,0 +1,65 @@
+package com.github.cidarosa.sqltrace;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// rastreamento de SQL no lugar de spring.jpa.show-sql: o DataSource é embrulhado em TracingDataSource
+// e cada statement alimenta o SqlTracer
+@Configuration
+@ConditionalOnProperty(name = "sqltrace.enabled", matchIfMissing = true)
+public class SqlTraceConfig {
+
+    @Value("${sqltrace.sample-rate:0.01}")
+    private double sampleRate;
+
+    @Value("${sqltrace.slow-threshold:200ms}")
+    private Duration slowThreshold;
+
+    @Value("${sqltrace.max-fingerprints:1000}")
+    private int maxFingerprints;
+
+    @Value("${sqltrace.log-queue-size:10000}")
+    private int logQueueSize;
+
+    @Bean(destroyMethod = "close")
+    public SqlTracer sqlTracer() {
+        return new SqlTracer(sampleRate, slowThreshold, maxFingerprints, logQueueSize);
+    }
+
+    // static: o post processor é criado antes desta configuração; o tracer só é buscado quando o
+    // DataSource aparece
+    @Bean
+    public static BeanPostProcessor tracingDataSourcePostProcessor(ObjectProvider<SqlTracer> tracer) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof TracingDataSource)) {
+                    return new TracingDataSource(dataSource, tracer.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public SqlTraceEndpoint sqlTraceEndpoint(SqlTracer tracer) {
+        return new SqlTraceEndpoint(tracer);
+    }
+
+    // antes dos demais filtros - o requestId já está no MDC quando o primeiro SQL roda
+    @Bean
+    public FilterRegistrationBean<RequestIdFilter> requestIdFilter() {
+        FilterRegistrationBean<RequestIdFilter> registration = new FilterRegistrationBean<>(new RequestIdFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,38 @@
+package com.github.cidarosa.sqltrace;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// GET /actuator/sqltrace?limit=N - fingerprints ordenados por tempo total; DELETE zera os agregados
+@Endpoint(id = "sqltrace")
+public class SqlTraceEndpoint {
+
+    private static final int DEFAULT_LIMIT = 50;
+
+    private final SqlTracer tracer;
+
+    public SqlTraceEndpoint(SqlTracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @ReadOperation
+    public Map<String, Object> statements(@Nullable Integer limit) {
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("sampleRate", tracer.getSampleRate());
+        result.put("slowThresholdMs", tracer.getSlowThreshold().toMillis());
+        result.put("logDescartados", tracer.getDescartadas());
+        result.put("statements", tracer.snapshot(limit == null || limit <= 0 ? DEFAULT_LIMIT : limit));
+        return result;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        tracer.reset();
+    }
+}
@@ -0,0 +1,167 @@
+package com.github.cidarosa.sqltrace;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// agregados por fingerprint de todos os statements + log de uma amostra (sample-rate) e de todos os
+// lentos (>= slow-threshold). O log é escrito por uma thread própria a partir de uma fila limitada:
+// a thread da requisição nunca espera pelo appender - com a fila cheia, a linha é descartada e contada
+public class SqlTracer {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlTracer.class);
+
+    public static final String REQUEST_ID = "requestId";
+    // fingerprints acima de max-fingerprints são somados aqui - memória limitada com SQL dinâmico
+    public static final String OUTROS = "<outros>";
+
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+    private final int maxFingerprints;
+
+    private final Map<String, Aggregate> aggregates = new ConcurrentHashMap<>();
+    private final BlockingQueue<Entry> logQueue;
+    private final LongAdder descartadas = new LongAdder();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public SqlTracer(double sampleRate, Duration slowThreshold, int maxFingerprints, int logQueueSize) {
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.maxFingerprints = maxFingerprints;
+        this.logQueue = new ArrayBlockingQueue<>(logQueueSize);
+        this.writer = new Thread(this::escreverLog, "sqltrace-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public void close() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    void record(String sql, long nanos, long rows, boolean error) {
+
+        String fingerprint = SqlFingerprint.of(sql);
+        aggregate(fingerprint).add(nanos, rows, error);
+
+        boolean slow = nanos >= slowThresholdNanos;
+        if (slow || error || ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            // requestId lido aqui - o MDC é da thread da requisição, não da thread de log
+            if (!logQueue.offer(new Entry(fingerprint, nanos, rows, MDC.get(REQUEST_ID), slow, error))) {
+                descartadas.increment();
+            }
+        }
+    }
+
+    private Aggregate aggregate(String fingerprint) {
+        Aggregate aggregate = aggregates.get(fingerprint);
+        if (aggregate != null) {
+            return aggregate;
+        }
+        if (aggregates.size() >= maxFingerprints) {
+            return aggregates.computeIfAbsent(OUTROS, key -> new Aggregate());
+        }
+        return aggregates.computeIfAbsent(fingerprint, key -> new Aggregate());
+    }
+
+    // ordenado por tempo total - o que mais pesa no banco primeiro
+    public List<Map<String, Object>> snapshot(int limit) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        aggregates.forEach((fingerprint, aggregate) -> result.add(aggregate.summary(fingerprint)));
+        result.sort(Comparator.comparingDouble((Map<String, Object> row) -> (Double) row.get("totalMs")).reversed());
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    public long getDescartadas() {
+        return descartadas.sum();
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public Duration getSlowThreshold() {
+        return Duration.ofNanos(slowThresholdNanos);
+    }
+
+    public void reset() {
+        aggregates.clear();
+        descartadas.reset();
+    }
+
+    private void escreverLog() {
+        while (running || !logQueue.isEmpty()) {
+            try {
+                Entry entry = logQueue.poll(100, TimeUnit.MILLISECONDS);
+                if (entry != null) {
+                    entry.log();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private record Entry(String fingerprint, long nanos, long rows, String requestId, boolean slow, boolean error) {
+
+        // logfmt - uma linha por statement, fácil de filtrar/agregar no coletor de logs
+        void log() {
+            String line = String.format("sql fingerprint=\"%s\" durationMs=%.3f rows=%d requestId=%s slow=%s error=%s",
+                    fingerprint.replace("\"", "'"), nanos / 1e6, rows, requestId == null ? "-" : requestId, slow, error);
+            if (slow || error) {
+                logger.warn(line);
+            } else {
+                logger.info(line);
+            }
+        }
+    }
+
+    private static class Aggregate {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void add(long nanos, long rows, boolean error) {
+            count.increment();
+            totalNanos.add(nanos);
+            this.rows.add(rows);
+            if (error) {
+                errors.increment();
+            }
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        Map<String, Object> summary(String fingerprint) {
+            long n = count.sum();
+            long total = totalNanos.sum();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("fingerprint", fingerprint);
+            row.put("count", n);
+            row.put("totalMs", total / 1e6);
+            row.put("avgMs", n == 0 ? 0.0 : total / 1e6 / n);
+            row.put("maxMs", maxNanos.get() / 1e6);
+            row.put("rows", rows.sum());
+            row.put("errors", errors.sum());
+            return row;
+        }
+    }
+}
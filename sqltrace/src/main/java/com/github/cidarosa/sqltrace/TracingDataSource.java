@@ -0,0 +1,155 @@
+package com.github.cidarosa.sqltrace;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+// entrega conexões que medem cada statement: duração do execute (mais a leitura das linhas, nas
+// consultas) e linhas lidas/alteradas. DelegatingDataSource - unwrap continua chegando ao Hikari
+class TracingDataSource extends DelegatingDataSource {
+
+    private final SqlTracer tracer;
+
+    TracingDataSource(DataSource target, SqlTracer tracer) {
+        super(target);
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connection(super.getConnection(username, password));
+    }
+
+    private Connection connection(Connection target) {
+        return proxy(Connection.class, target, (method, args) -> {
+            Object result = invoke(target, method, args);
+            return switch (method.getName()) {
+                case "prepareStatement", "prepareCall" -> statement(method.getReturnType(), (Statement) result, (String) args[0]);
+                case "createStatement" -> statement(method.getReturnType(), (Statement) result, null);
+                default -> result;
+            };
+        });
+    }
+
+    // preparedSql nulo: Statement simples, o SQL vem no próprio execute(sql)
+    private Object statement(Class<?> type, Statement target, String preparedSql) {
+        Execucao[] aberta = new Execucao[1];
+        return proxy(type, target, (method, args) -> {
+            String name = method.getName();
+            if (name.equals("close") && aberta[0] != null) {
+                aberta[0].registrar();
+            }
+            if (!name.startsWith("execute")) {
+                return invoke(target, method, args);
+            }
+            String sql = preparedSql != null ? preparedSql
+                    : args != null && args.length > 0 && args[0] instanceof String value ? value : null;
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = invoke(target, method, args);
+            } catch (SQLException e) {
+                tracer.record(sql, System.nanoTime() - start, 0, true);
+                throw e;
+            }
+            long nanos = System.nanoTime() - start;
+            if (result instanceof ResultSet resultSet) {
+                // reexecução do mesmo PreparedStatement sem fechar o ResultSet anterior
+                if (aberta[0] != null) {
+                    aberta[0].registrar();
+                }
+                aberta[0] = new Execucao(sql, nanos);
+                return resultSet(resultSet, aberta[0]);
+            }
+            tracer.record(sql, nanos, rows(result, target), false);
+            return result;
+        });
+    }
+
+    // a consulta é registrada no close, já com as linhas lidas
+    private ResultSet resultSet(ResultSet target, Execucao execucao) {
+        return proxy(ResultSet.class, target, (method, args) -> {
+            String name = method.getName();
+            if (name.equals("next")) {
+                long start = System.nanoTime();
+                Object result = invoke(target, method, args);
+                execucao.nanos += System.nanoTime() - start;
+                if (Boolean.TRUE.equals(result)) {
+                    execucao.rows++;
+                }
+                return result;
+            }
+            if (name.equals("close")) {
+                execucao.registrar();
+            }
+            return invoke(target, method, args);
+        });
+    }
+
+    private static long rows(Object result, Statement statement) throws SQLException {
+        if (result instanceof Number count) {
+            return Math.max(count.longValue(), 0);
+        }
+        if (result instanceof int[] counts) {
+            return Arrays.stream(counts).filter(count -> count > 0).sum();
+        }
+        if (result instanceof long[] counts) {
+            return Arrays.stream(counts).filter(count -> count > 0).sum();
+        }
+        // execute(): linhas alteradas, quando não é consulta
+        return Math.max(statement.getUpdateCount(), 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, Handler handler) {
+        return (T) Proxy.newProxyInstance(TracingDataSource.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> handler.invoke(method, args));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object invoke(Method method, Object[] args) throws Throwable;
+    }
+
+    // consulta em andamento - um ResultSet é lido por uma thread de cada vez
+    private final class Execucao {
+
+        private final String sql;
+        private long nanos;
+        private long rows;
+        private boolean registrada;
+
+        private Execucao(String sql, long nanos) {
+            this.sql = sql;
+            this.nanos = nanos;
+        }
+
+        private void registrar() {
+            if (!registrada) {
+                registrada = true;
+                tracer.record(sql, nanos, rows, false);
+            }
+        }
+    }
+}
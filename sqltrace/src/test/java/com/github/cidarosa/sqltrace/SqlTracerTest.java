@@ -0,0 +1,75 @@
+package com.github.cidarosa.sqltrace;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+public class SqlTracerTest {
+
+    private SqlTracer tracer;
+
+    @BeforeEach
+    void setup() {
+        tracer = new SqlTracer(0.0, Duration.ofMillis(200), 3, 10);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        tracer.close();
+    }
+
+    @Test
+    public void fingerprintShouldReplaceLiteralsAndCollapseInLists() {
+
+        Assertions.assertEquals("select * from tb_pagamento where id=? and nome=?",
+                SqlFingerprint.normalize("select *  from tb_pagamento\n where id=10 and nome='Jon ''Snow'''"));
+        Assertions.assertEquals(SqlFingerprint.normalize("select p1_0.id from tb_pagamento p1_0 where p1_0.id in (?,?)"),
+                SqlFingerprint.normalize("select p1_0.id from tb_pagamento p1_0 where p1_0.id in (?, ?, ?, ?)"));
+        // números dentro de identificadores ficam
+        Assertions.assertEquals("select p1_0.id from tb_pagamento p1_0 where p1_0.valor>?",
+                SqlFingerprint.normalize("select p1_0.id from tb_pagamento p1_0 where p1_0.valor>35.55"));
+    }
+
+    @Test
+    public void recordShouldAggregateByFingerprintOrderedByTotalTime() {
+
+        tracer.record("select * from tb_pagamento where id=1", 1_000_000, 1, false);
+        tracer.record("select * from tb_pagamento where id=2", 3_000_000, 0, false);
+        tracer.record("update tb_pagamento set status=? where id=?", 10_000_000, 1, true);
+
+        List<Map<String, Object>> snapshot = tracer.snapshot(10);
+
+        Assertions.assertEquals(2, snapshot.size());
+        Assertions.assertEquals("update tb_pagamento set status=? where id=?", snapshot.get(0).get("fingerprint"));
+        Assertions.assertEquals(1L, snapshot.get(0).get("errors"));
+        Map<String, Object> select = snapshot.get(1);
+        Assertions.assertEquals("select * from tb_pagamento where id=?", select.get("fingerprint"));
+        Assertions.assertEquals(2L, select.get("count"));
+        Assertions.assertEquals(4.0, (Double) select.get("totalMs"), 1e-9);
+        Assertions.assertEquals(3.0, (Double) select.get("maxMs"), 1e-9);
+        Assertions.assertEquals(1L, select.get("rows"));
+        Assertions.assertEquals(1, tracer.snapshot(1).size());
+    }
+
+    @Test
+    public void recordShouldGroupFingerprintsAboveLimitUnderOutros() {
+
+        for (int i = 0; i < 5; i++) {
+            tracer.record("select * from tb_" + (char) ('a' + i), 1_000, 0, false);
+        }
+
+        List<Map<String, Object>> snapshot = tracer.snapshot(10);
+
+        Assertions.assertEquals(4, snapshot.size());
+        Assertions.assertTrue(snapshot.stream()
+                .anyMatch(row -> SqlTracer.OUTROS.equals(row.get("fingerprint")) && (Long) row.get("count") == 2L));
+
+        tracer.reset();
+        Assertions.assertTrue(tracer.snapshot(10).isEmpty());
+    }
+}
@@ -0,0 +1,53 @@
+package com.github.cidarosa.sqltrace.tests;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.junit.jupiter.api.Assertions;
+
+// contagem de atividade JDBC/Hibernate de uma chamada medida por QueryCounter
+@AllArgsConstructor
+@Getter
+public class QueryCount {
+
+    private long statements;
+    private long entityLoads;
+    private long collectionLoads;
+    private long rows;
+
+    public QueryCount assertStatementsAtMost(long max) {
+        Assertions.assertTrue(statements <= max,
+                () -> "Orçamento de statements excedido: " + statements + " > " + max);
+        return this;
+    }
+
+    // mínimo - a chamada medida chegou ao banco (não foi servida por cache)
+    public QueryCount assertStatementsAtLeast(long min) {
+        Assertions.assertTrue(statements >= min,
+                () -> "Statements abaixo do esperado: " + statements + " < " + min);
+        return this;
+    }
+
+    public QueryCount assertEntityLoadsAtMost(long max) {
+        Assertions.assertTrue(entityLoads <= max,
+                () -> "Orçamento de entidades carregadas excedido: " + entityLoads + " > " + max);
+        return this;
+    }
+
+    public QueryCount assertCollectionLoadsAtMost(long max) {
+        Assertions.assertTrue(collectionLoads <= max,
+                () -> "Orçamento de coleções carregadas excedido: " + collectionLoads + " > " + max);
+        return this;
+    }
+
+    public QueryCount assertRowsAtMost(long max) {
+        Assertions.assertTrue(rows <= max,
+                () -> "Orçamento de linhas lidas excedido: " + rows + " > " + max);
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryCount{statements=" + statements + ", entityLoads=" + entityLoads
+                + ", collectionLoads=" + collectionLoads + ", rows=" + rows + "}";
+    }
+}
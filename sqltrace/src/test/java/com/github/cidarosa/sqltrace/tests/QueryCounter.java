@@ -0,0 +1,45 @@
+package com.github.cidarosa.sqltrace.tests;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+
+// mede statements, entidades e linhas de uma chamada (ex.: mockMvc.perform) via Hibernate Statistics
+public class QueryCounter {
+
+    private final Statistics statistics;
+    private final EntityManager entityManager;
+
+    public QueryCounter(EntityManagerFactory entityManagerFactory, EntityManager entityManager) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.statistics.setStatisticsEnabled(true);
+        this.entityManager = entityManager;
+    }
+
+    public QueryCount measure(Action action) throws Exception {
+
+        statistics.clear();
+        action.run();
+        // em testes @Transactional o commit não acontece - força o flush para contar as escritas
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            entityManager.flush();
+        }
+        // linhas retornadas pelas queries HQL/SQL (buscas por id entram em entityLoads)
+        long rows = Arrays.stream(statistics.getQueries())
+                .mapToLong(query -> statistics.getQueryStatistics(query).getExecutionRowCount())
+                .sum();
+        return new QueryCount(statistics.getPrepareStatementCount(),
+                statistics.getEntityLoadCount(),
+                statistics.getCollectionLoadCount(),
+                rows);
+    }
+
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+}